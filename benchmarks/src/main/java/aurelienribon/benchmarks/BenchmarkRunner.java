@@ -0,0 +1,24 @@
+package aurelienribon.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of benchmarks.jar. Accepts the usual JMH command line, and
+ * always enables the GC profiler so that every benchmark reports its
+ * allocated bytes per operation (gc.alloc.rate.norm) next to its ops/s.
+ * <p>
+ *
+ * Usage: java -jar benchmarks/target/benchmarks.jar [jmh options] [regexp]
+ */
+public class BenchmarkRunner {
+	public static void main(String[] args) throws Exception {
+		CommandLineOptions cmd = new CommandLineOptions(args);
+		new Runner(new OptionsBuilder()
+			.parent(cmd)
+			.addProfiler(GCProfiler.class)
+			.build()).run();
+	}
+}
@@ -0,0 +1,47 @@
+package aurelienribon.benchmarks;
+
+import aurelienribon.tweenengine.TweenPaths;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * One TweenPaths.catmullRom evaluation, from no waypoint up to the limit set
+ * by the demo with Tween.setWaypointsLimit(10).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CatmullRomBenchmark {
+	@Param({"0", "1", "2", "5", "10"})
+	public int waypointsCnt;
+
+	private final float[] times = new float[1024];
+	private float[] points;
+	private int idx;
+
+	@Setup
+	public void setup() {
+		points = new float[waypointsCnt + 2];
+		for (int i=0; i<points.length; i++) points[i] = (i % 2 == 0) ? i : -i;
+		for (int i=0; i<times.length; i++) times[i] = (float) i / (times.length-1);
+	}
+
+	@Benchmark
+	public float compute() {
+		idx = (idx + 1) & (times.length-1);
+		return TweenPaths.catmullRom.compute(times[idx], points, points.length);
+	}
+}
@@ -0,0 +1,52 @@
+package aurelienribon.benchmarks;
+
+import aurelienribon.equations.CubicBezierEquation;
+import aurelienribon.tweenengine.TweenEquation;
+import aurelienribon.tweenengine.TweenUtils;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * One compute() call of CubicBezierEquation curves versus the built-in
+ * equations. The CSS curves are "ease", "ease-in", "ease-in-out", a
+ * back-like overshoot, and a curve with a vertical tangent, solved by
+ * bisection around it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CubicBezierEquationBenchmark {
+	@Param({"Quad.INOUT", "Cubic.INOUT", "Back.OUT", "Sine.INOUT", "ease", "ease-in", "ease-in-out",
+		"cubic-bezier(0.68, -0.55, 0.27, 1.55)", "cubic-bezier(1, 0, 0, 1)"})
+	public String equationName;
+
+	private final float[] times = new float[1024];
+	private TweenEquation equation;
+	private int idx;
+
+	@Setup
+	public void setup() {
+		boolean isCss = equationName.startsWith("cubic-bezier") || equationName.startsWith("ease");
+		equation = isCss ? CubicBezierEquation.parse(equationName) : TweenUtils.parseEasing(equationName);
+		for (int i=0; i<times.length; i++) times[i] = (float) i / (times.length-1);
+	}
+
+	@Benchmark
+	public float compute() {
+		idx = (idx + 1) & (times.length-1);
+		return equation.compute(times[idx]);
+	}
+}
@@ -0,0 +1,73 @@
+package aurelienribon.benchmarks;
+
+import aurelienribon.accessors.SpriteAccessor;
+import aurelienribon.managers.DeferredTweenManager;
+import aurelienribon.tweenengine.Tween;
+import aurelienribon.tweenengine.TweenManager;
+import aurelienribon.tweenengine.equations.Quad;
+import com.badlogic.gdx.graphics.g2d.Sprite;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * One frame of 1000 sprites, each carrying concurrent position, scale and
+ * rotation tweens: TweenManager.update() at 60fps, then Sprite.getVertices()
+ * as a SpriteBatch would do when drawing. Compares a regular TweenManager
+ * with a DeferredTweenManager.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeferredTweenManagerBenchmark {
+	@Param({"direct", "deferred"})
+	public String manager;
+
+	private final Sprite[] sprites = new Sprite[1000];
+	private TweenManager tweenManager;
+
+	@Setup
+	public void setup() {
+		Tween.registerAccessor(Sprite.class, new SpriteAccessor());
+		Tween.ensurePoolCapacity(sprites.length * 3);
+		tweenManager = manager.equals("deferred") ? new DeferredTweenManager() : new TweenManager();
+
+		for (int i=0; i<sprites.length; i++) {
+			Sprite sp = sprites[i] = new Sprite();
+			sp.setSize(1, 1);
+			sp.setOrigin(0.5f, 0.5f);
+
+			float delay = (i % 60) / 60f;
+			Tween.to(sp, SpriteAccessor.POS_XY, 1.0f).target(3, 1).ease(Quad.INOUT).repeatYoyo(Tween.INFINITY, 0).delay(delay).start(tweenManager);
+			Tween.to(sp, SpriteAccessor.SCALE_XY, 0.7f).target(2, 2).repeatYoyo(Tween.INFINITY, 0).delay(delay).start(tweenManager);
+			Tween.to(sp, SpriteAccessor.ROTATION, 2.0f).target(360).repeat(Tween.INFINITY, 0).delay(delay).start(tweenManager);
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		tweenManager.killAll();
+		tweenManager.update(0);
+	}
+
+	@Benchmark
+	public float frame() {
+		tweenManager.update(1/60f);
+		float sum = 0;
+		for (int i=0; i<sprites.length; i++) sum += sprites[i].getVertices()[0];
+		return sum;
+	}
+}
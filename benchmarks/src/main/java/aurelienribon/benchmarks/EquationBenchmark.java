@@ -0,0 +1,48 @@
+package aurelienribon.benchmarks;
+
+import aurelienribon.tweenengine.TweenEquation;
+import aurelienribon.tweenengine.TweenUtils;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * One TweenEquation.compute() call, for every equation of the Functions test.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EquationBenchmark {
+	@Param({"Quad.INOUT", "Cubic.INOUT", "Quart.INOUT", "Quint.INOUT",
+		"Circ.INOUT", "Sine.INOUT", "Expo.INOUT", "Linear.INOUT",
+		"Back.OUT", "Elastic.OUT", "Bounce.OUT"})
+	public String equationName;
+
+	private final float[] times = new float[1024];
+	private TweenEquation equation;
+	private int idx;
+
+	@Setup
+	public void setup() {
+		equation = TweenUtils.parseEasing(equationName);
+		for (int i=0; i<times.length; i++) times[i] = (float) i / (times.length-1);
+	}
+
+	@Benchmark
+	public float compute() {
+		idx = (idx + 1) & (times.length-1);
+		return equation.compute(times[idx]);
+	}
+}
@@ -0,0 +1,53 @@
+package aurelienribon.benchmarks;
+
+import aurelienribon.equations.LutEquation;
+import aurelienribon.tweenengine.TweenEquation;
+import aurelienribon.tweenengine.TweenUtils;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * One compute() call of the analytic equations versus their LutEquation
+ * versions (256 entries, linear or cubic interpolation).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LutEquationBenchmark {
+	@Param({"Elastic.OUT", "Bounce.OUT", "Back.OUT", "Expo.INOUT", "Circ.INOUT", "Sine.INOUT"})
+	public String equationName;
+
+	@Param({"analytic", "linear", "cubic"})
+	public String mode;
+
+	private final float[] times = new float[1024];
+	private TweenEquation equation;
+	private int idx;
+
+	@Setup
+	public void setup() {
+		equation = TweenUtils.parseEasing(equationName);
+		if (mode.equals("linear")) equation = LutEquation.wrap(equation, LutEquation.DEFAULT_SIZE, LutEquation.Interpolation.LINEAR);
+		if (mode.equals("cubic")) equation = LutEquation.wrap(equation, LutEquation.DEFAULT_SIZE, LutEquation.Interpolation.CUBIC);
+		for (int i=0; i<times.length; i++) times[i] = (float) i / (times.length-1);
+	}
+
+	@Benchmark
+	public float compute() {
+		idx = (idx + 1) & (times.length-1);
+		return equation.compute(times[idx]);
+	}
+}
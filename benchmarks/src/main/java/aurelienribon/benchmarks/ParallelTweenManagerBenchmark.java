@@ -0,0 +1,69 @@
+package aurelienribon.benchmarks;
+
+import aurelienribon.accessors.SpriteAccessor;
+import aurelienribon.managers.ParallelTweenManager;
+import aurelienribon.tweenengine.Tween;
+import aurelienribon.tweenengine.equations.Elastic;
+import com.badlogic.gdx.graphics.g2d.Sprite;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ParallelTweenManager.update() with 1, 2, 4 and 8 worker threads.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelTweenManagerBenchmark {
+	@Param({"1", "2", "4", "8"})
+	public int threadsCnt;
+
+	@Param({"20000"})
+	public int tweensCnt;
+
+	private ParallelTweenManager manager;
+
+	@Setup
+	public void setup() {
+		Tween.registerAccessor(Sprite.class, new SpriteAccessor());
+		Tween.ensurePoolCapacity(tweensCnt);
+		manager = new ParallelTweenManager(threadsCnt);
+		manager.setParallelThreshold(0);
+
+		for (int i=0; i<tweensCnt; i++) {
+			Sprite sp = new Sprite();
+			sp.setSize(1, 1);
+			Tween.to(sp, SpriteAccessor.CPOS_XY, 1.0f)
+				.target(3, 1)
+				.ease(Elastic.OUT)
+				.repeatYoyo(Tween.INFINITY, 0.1f)
+				.start(manager);
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		manager.killAll();
+		manager.update(0);
+		manager.dispose();
+	}
+
+	@Benchmark
+	public void update() {
+		manager.update(1/60f);
+	}
+}
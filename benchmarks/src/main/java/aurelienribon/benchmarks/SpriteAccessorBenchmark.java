@@ -0,0 +1,54 @@
+package aurelienribon.benchmarks;
+
+import aurelienribon.accessors.SpriteAccessor;
+import com.badlogic.gdx.graphics.g2d.Sprite;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * SpriteAccessor.getValues() and setValues() for every tween type
+ * (1: POS_XY, 2: CPOS_XY, 3: SCALE_XY, 4: ROTATION, 5: OPACITY, 6: TINT).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpriteAccessorBenchmark {
+	@Param({"1", "2", "3", "4", "5", "6"})
+	public int tweenType;
+
+	private final SpriteAccessor accessor = new SpriteAccessor();
+	private final float[] buffer = new float[3];
+	private Sprite sprite;
+
+	@Setup
+	public void setup() {
+		sprite = new Sprite();
+		sprite.setSize(1, 1);
+		buffer[0] = 0.5f;
+		buffer[1] = 0.25f;
+		buffer[2] = 0.75f;
+	}
+
+	@Benchmark
+	public int getValues() {
+		return accessor.getValues(sprite, tweenType, buffer);
+	}
+
+	@Benchmark
+	public void setValues() {
+		accessor.setValues(sprite, tweenType, buffer);
+	}
+}
@@ -0,0 +1,97 @@
+package aurelienribon.benchmarks;
+
+import aurelienribon.accessors.SpriteAccessor;
+import aurelienribon.tweenengine.Timeline;
+import aurelienribon.tweenengine.Tween;
+import aurelienribon.tweenengine.TweenManager;
+import aurelienribon.tweenengine.equations.Back;
+import aurelienribon.tweenengine.equations.Cubic;
+import aurelienribon.tweenengine.equations.Quad;
+import aurelienribon.tweenengine.equations.Quart;
+import com.badlogic.gdx.graphics.g2d.Sprite;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Updates of nested timelines shaped like the TimeManipulation test: a
+ * parallel timeline of four sequences, each one holding parallel groups.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimelineBenchmark {
+	@Param({"1", "100", "1000"})
+	public int timelinesCnt;
+
+	private TweenManager manager;
+
+	@Setup
+	public void setup() {
+		Tween.registerAccessor(Sprite.class, new SpriteAccessor());
+		Tween.ensurePoolCapacity(timelinesCnt * 4 * 10);
+		Timeline.ensurePoolCapacity(timelinesCnt * 13);
+		manager = new TweenManager();
+
+		for (int i=0; i<timelinesCnt; i++) {
+			Timeline.createParallel()
+				.push(buildSequence(newSprite(), 1, 0.0f, 1.4f))
+				.push(buildSequence(newSprite(), 2, 0.2f, 1.0f))
+				.push(buildSequence(newSprite(), 3, 0.4f, 0.6f))
+				.push(buildSequence(newSprite(), 4, 0.6f, 0.2f))
+				.repeatYoyo(Tween.INFINITY, 0)
+				.start(manager);
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		manager.killAll();
+		manager.update(0);
+	}
+
+	@Benchmark
+	public void update() {
+		manager.update(1/60f);
+	}
+
+	private static Sprite newSprite() {
+		Sprite sp = new Sprite();
+		sp.setSize(1, 1);
+		return sp;
+	}
+
+	private static Timeline buildSequence(Sprite target, int id, float delay1, float delay2) {
+		return Timeline.createSequence()
+			.push(Tween.set(target, SpriteAccessor.POS_XY).target(-0.5f, -0.5f))
+			.push(Tween.set(target, SpriteAccessor.SCALE_XY).target(10, 10))
+			.push(Tween.set(target, SpriteAccessor.ROTATION).target(0))
+			.push(Tween.set(target, SpriteAccessor.OPACITY).target(0))
+			.pushPause(delay1)
+			.beginParallel()
+				.push(Tween.to(target, SpriteAccessor.OPACITY, 1.0f).target(1).ease(Quart.INOUT))
+				.push(Tween.to(target, SpriteAccessor.SCALE_XY, 1.0f).target(1, 1).ease(Quart.INOUT))
+			.end()
+			.pushPause(-0.5f)
+			.push(Tween.to(target, SpriteAccessor.POS_XY, 1.0f).target((6f/5f)*id - 3 - 0.5f, -0.5f).ease(Back.OUT))
+			.push(Tween.to(target, SpriteAccessor.ROTATION, 0.8f).target(360).ease(Cubic.INOUT))
+			.pushPause(delay2)
+			.beginParallel()
+				.push(Tween.to(target, SpriteAccessor.SCALE_XY, 0.3f).target(3, 3).ease(Quad.IN))
+				.push(Tween.to(target, SpriteAccessor.OPACITY, 0.3f).target(0).ease(Quad.IN))
+			.end();
+	}
+}
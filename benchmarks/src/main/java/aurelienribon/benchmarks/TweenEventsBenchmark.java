@@ -0,0 +1,97 @@
+package aurelienribon.benchmarks;
+
+import aurelienribon.accessors.SpriteAccessor;
+import aurelienribon.monitoring.TweenEvents;
+import aurelienribon.tweenengine.Tween;
+import aurelienribon.tweenengine.TweenCallback;
+import aurelienribon.tweenengine.TweenManager;
+import aurelienribon.tweenengine.equations.Quad;
+import com.badlogic.gdx.graphics.g2d.Sprite;
+import java.util.concurrent.TimeUnit;
+import jdk.jfr.Recording;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of TweenEvents.update() over a plain TweenManager.update(), with the
+ * flight recorder off, and with the engine events recorded. Every tween has
+ * a callback called on each iteration.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TweenEventsBenchmark {
+	@Param({"10", "1000"})
+	public int tweensCnt;
+
+	@Param({"off", "on"})
+	public String recording;
+
+	private TweenManager manager;
+	private Recording jfr;
+	private int calls;
+
+	@Setup
+	public void setup() {
+		Tween.registerAccessor(Sprite.class, new SpriteAccessor());
+		Tween.ensurePoolCapacity(tweensCnt);
+		manager = new TweenManager();
+
+		if (recording.equals("on")) {
+			jfr = new Recording();
+			jfr.enable("aurelienribon.TweenLifecycle");
+			jfr.enable("aurelienribon.TweenCallback");
+			jfr.enable("aurelienribon.TweenManagerUpdate");
+			jfr.start();
+		}
+
+		TweenCallback callback = new TweenCallback() {
+			@Override public void onEvent(int type, aurelienribon.tweenengine.BaseTween<?> source) {
+				calls += 1;
+			}
+		};
+
+		for (int i=0; i<tweensCnt; i++) {
+			Sprite sp = new Sprite();
+			sp.setSize(1, 1);
+			Tween.to(sp, SpriteAccessor.CPOS_XY, 1.0f)
+				.target(3, 1)
+				.ease(Quad.INOUT)
+				.repeatYoyo(Tween.INFINITY, 0.1f)
+				.delay((i % 60) / 60f)
+				.setCallback(callback)
+				.setCallbackTriggers(TweenCallback.START | TweenCallback.END)
+				.start(manager);
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		manager.killAll();
+		manager.update(0);
+		if (jfr != null) jfr.close();
+	}
+
+	@Benchmark
+	public void direct() {
+		manager.update(1/60f);
+	}
+
+	@Benchmark
+	public void events() {
+		TweenEvents.update(manager, 1/60f, "benchmark");
+	}
+}
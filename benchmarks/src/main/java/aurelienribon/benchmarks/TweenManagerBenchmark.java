@@ -0,0 +1,66 @@
+package aurelienribon.benchmarks;
+
+import aurelienribon.accessors.SpriteAccessor;
+import aurelienribon.tweenengine.Tween;
+import aurelienribon.tweenengine.TweenManager;
+import aurelienribon.tweenengine.equations.Quad;
+import com.badlogic.gdx.graphics.g2d.Sprite;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * One TweenManager.update() at 60fps, with every tween moving its own
+ * sprite back and forth.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TweenManagerBenchmark {
+	@Param({"10", "1000", "100000"})
+	public int tweensCnt;
+
+	private TweenManager manager;
+
+	@Setup
+	public void setup() {
+		Tween.registerAccessor(Sprite.class, new SpriteAccessor());
+		Tween.ensurePoolCapacity(tweensCnt);
+		manager = new TweenManager();
+
+		for (int i=0; i<tweensCnt; i++) {
+			Sprite sp = new Sprite();
+			sp.setSize(1, 1);
+			Tween.to(sp, SpriteAccessor.CPOS_XY, 1.0f)
+				.target(3, 1)
+				.ease(Quad.INOUT)
+				.repeatYoyo(Tween.INFINITY, 0.1f)
+				.delay((i % 60) / 60f)
+				.start(manager);
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		manager.killAll();
+		manager.update(0);
+	}
+
+	@Benchmark
+	public void update() {
+		manager.update(1/60f);
+	}
+}
@@ -0,0 +1,43 @@
+import aurelienribon.accessors.SpriteAccessor;
+import aurelienribon.tweenengine.Tween;
+import aurelienribon.tweenengine.demo.Assets;
+import aurelienribon.tweenengine.demo.SplashScreen;
+import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Console program baking the splash screen intro into
+ * {@link SplashScreen#BAKED_INTRO_FILE}, so that the application does not
+ * need to bake it on first launch. An outdated file is detected and ignored
+ * by the splash screen, run this again after changing the intro.
+ * <p>
+ *
+ * Must be run from the project root (for the data/ folder):
+ * java -cp demo/target/classes:libs/* BakeIntro
+ */
+public class BakeIntro {
+	public static void main(String[] args) throws IOException {
+		HeadlessRunner.installStubs();
+		Tween.setWaypointsLimit(10);
+		Tween.setCombinedAttributesLimit(3);
+		Tween.registerAccessor(Sprite.class, new SpriteAccessor());
+
+		Assets.inst().load("data/splash/pack", TextureAtlas.class);
+		Assets.inst().finishLoading();
+
+		File file = new File(SplashScreen.BAKED_INTRO_FILE);
+		file.delete();
+		new SplashScreen(null).dispose();
+
+		OutputStream os = new FileOutputStream(file);
+		try {SplashScreen.getBakedIntro().save(os);}
+		finally {os.close();}
+
+		System.out.println("Saved " + file + " (" + file.length() + " bytes)");
+		Assets.inst().dispose();
+	}
+}
@@ -0,0 +1,221 @@
+import aurelienribon.accessors.SpriteAccessor;
+import aurelienribon.tweenengine.Tween;
+import aurelienribon.tweenengine.TweenManager;
+import aurelienribon.tweenengine.demo.Assets;
+import aurelienribon.tweenengine.demo.Test;
+import aurelienribon.tweenengine.demo.tests.Functions;
+import aurelienribon.tweenengine.demo.tests.Info;
+import aurelienribon.tweenengine.demo.tests.Intro;
+import aurelienribon.tweenengine.demo.tests.Repetitions;
+import aurelienribon.tweenengine.demo.tests.SimpleTimeline;
+import aurelienribon.tweenengine.demo.tests.SimpleTween;
+import aurelienribon.tweenengine.demo.tests.TimeManipulation;
+import aurelienribon.tweenengine.demo.tests.Types;
+import aurelienribon.tweenengine.demo.tests.Waypoints;
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Graphics;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.backends.lwjgl.LwjglFiles;
+import com.badlogic.gdx.graphics.GL11;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.Locale;
+
+/**
+ * Console program stepping every Test scene without a window nor a GL
+ * context. Gdx.graphics, Gdx.gl and Gdx.input are replaced by stubs, the
+ * assets are decoded for real but never uploaded, and each scene is rendered
+ * at a fixed dt as fast as possible. Since every GL call is a no-op, the
+ * measured cost is the CPU side of a frame: tween logic plus sprite vertex
+ * updates. The stubs box their arguments, so part of the reported allocation
+ * comes from them: compare runs together rather than reading absolute values.
+ * <p>
+ *
+ * Must be run from the project root (for the data/ folder):
+ * java -cp demo/target/classes:libs/* HeadlessRunner [seconds per scene]
+ */
+public class HeadlessRunner {
+	private static final int WIDTH = 800;
+	private static final int HEIGHT = 480;
+	private static final float DT = 1/60f;
+
+	public static void main(String[] args) {
+		float seconds = args.length > 0 ? Float.parseFloat(args[0]) : 2;
+
+		installStubs();
+		Tween.setWaypointsLimit(10);
+		Tween.setCombinedAttributesLimit(3);
+		Tween.registerAccessor(Sprite.class, new SpriteAccessor());
+
+		Assets.inst().load("data/splash/pack", TextureAtlas.class);
+		Assets.inst().load("data/launcher/pack", TextureAtlas.class);
+		Assets.inst().load("data/test/pack", TextureAtlas.class);
+		Assets.inst().load("data/arial-16.fnt", BitmapFont.class);
+		Assets.inst().load("data/arial-18.fnt", BitmapFont.class);
+		Assets.inst().load("data/arial-20.fnt", BitmapFont.class);
+		Assets.inst().load("data/arial-24.fnt", BitmapFont.class);
+		Assets.inst().finishLoading();
+
+		Test[] tests = new Test[] {
+			new Intro(),
+			new Info(),
+			new SimpleTween(),
+			new SimpleTimeline(),
+			new Repetitions(),
+			new TimeManipulation(),
+			new Waypoints(),
+			new Functions(),
+			new Types()
+		};
+
+		System.out.println("-----------------------------------------------");
+		System.out.println(String.format(Locale.US, "Headless scenes (dt %.4f, %.1fs per scene)", DT, seconds));
+		System.out.println("-----------------------------------------------");
+		System.out.println(String.format(Locale.US, "%-20s %12s %8s %14s", "scene", "updates/s", "tweens", "alloc B/update"));
+
+		for (Test test : tests) {
+			test.initialize();
+
+			// warmup
+			for (int i=0; i<300; i++) test.render();
+
+			long updates = 0;
+			long bytes = allocatedBytes();
+			long start = System.nanoTime();
+			long end = start + (long) (seconds * 1e9);
+			long now = start;
+			while (now < end) {
+				for (int i=0; i<100; i++) test.render();
+				updates += 100;
+				now = System.nanoTime();
+			}
+			bytes = allocatedBytes() - bytes;
+
+			System.out.println(String.format(Locale.US, "%-20s %12.0f %8d %14s",
+				test.getTitle(),
+				updates / ((now - start) / 1e9),
+				countTweens(test, 0),
+				bytes >= 0 ? String.format(Locale.US, "%.1f", (double) bytes / updates) : "n/a"));
+
+			test.dispose();
+		}
+
+		Assets.inst().dispose();
+	}
+
+	// -------------------------------------------------------------------------
+	// Stubs
+	// -------------------------------------------------------------------------
+
+	static void installStubs() {
+		GdxNativesLoader.load();
+
+		GL11 gl = stub(GL11.class, new InvocationHandler() {
+			@Override public Object invoke(Object proxy, Method method, Object[] args) {
+				return defaultValue(method.getReturnType());
+			}
+		});
+
+		Gdx.gl = gl;
+		Gdx.gl10 = gl;
+		Gdx.gl11 = gl;
+		Gdx.files = new LwjglFiles();
+
+		Gdx.graphics = stub(Graphics.class, new InvocationHandler() {
+			@Override public Object invoke(Object proxy, Method method, Object[] args) {
+				String name = method.getName();
+				if (name.equals("getWidth")) return WIDTH;
+				if (name.equals("getHeight")) return HEIGHT;
+				if (name.equals("getDeltaTime") || name.equals("getRawDeltaTime")) return DT;
+				if (name.equals("getFramesPerSecond")) return (int) (1 / DT);
+				if (name.equals("getPpiX") || name.equals("getPpiY")) return 96f;
+				if (name.equals("getPpcX") || name.equals("getPpcY")) return 96f / 2.54f;
+				if (name.equals("getDensity")) return 1f;
+				if (name.equals("isGL11Available")) return true;
+				if (name.startsWith("getGL") && !name.equals("getGL20")) return Gdx.gl11;
+				return defaultValue(method.getReturnType());
+			}
+		});
+
+		Gdx.input = stub(Input.class, new InvocationHandler() {
+			@Override public Object invoke(Object proxy, Method method, Object[] args) {
+				return defaultValue(method.getReturnType());
+			}
+		});
+
+		Gdx.app = stub(Application.class, new InvocationHandler() {
+			@Override public Object invoke(Object proxy, Method method, Object[] args) {
+				String name = method.getName();
+				if (name.equals("getType")) return Application.ApplicationType.Desktop;
+				if (name.equals("getGraphics")) return Gdx.graphics;
+				if (name.equals("getInput")) return Gdx.input;
+				if (name.equals("getFiles")) return Gdx.files;
+				if (name.equals("postRunnable")) {((Runnable) args[0]).run(); return null;}
+				if (name.equals("error")) System.err.println(args[0] + ": " + args[1]);
+				return defaultValue(method.getReturnType());
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T stub(Class<T> type, InvocationHandler handler) {
+		return (T) Proxy.newProxyInstance(HeadlessRunner.class.getClassLoader(), new Class<?>[] {type}, handler);
+	}
+
+	private static Object defaultValue(Class<?> type) {
+		if (type == boolean.class) return false;
+		if (type == int.class) return 0;
+		if (type == float.class) return 0f;
+		if (type == long.class) return 0L;
+		if (type == double.class) return 0d;
+		if (type == byte.class) return (byte) 0;
+		if (type == short.class) return (short) 0;
+		if (type == char.class) return (char) 0;
+		return null;
+	}
+
+	// -------------------------------------------------------------------------
+	// Measures
+	// -------------------------------------------------------------------------
+
+	private static long allocatedBytes() {
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (!(bean instanceof com.sun.management.ThreadMXBean)) return Long.MIN_VALUE;
+		return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+	/**
+	 * Sums the size of every TweenManager held by the scene, looking one
+	 * level down into the demo objects it holds (like the Intro splash
+	 * screen).
+	 */
+	private static int countTweens(Object obj, int depth) {
+		int cnt = 0;
+		for (Class<?> c = obj.getClass(); c != null && c != Object.class; c = c.getSuperclass()) {
+			for (Field field : c.getDeclaredFields()) {
+				if (field.getType().isPrimitive() || Modifier.isStatic(field.getModifiers())) continue;
+				try {
+					field.setAccessible(true);
+					Object value = field.get(obj);
+					if (value instanceof TweenManager) {
+						cnt += ((TweenManager) value).size();
+					} else if (value != null && depth == 0 && value.getClass().getName().startsWith("aurelienribon.tweenengine.demo.")) {
+						cnt += countTweens(value, depth + 1);
+					}
+				} catch (IllegalAccessException ex) {
+					throw new RuntimeException("Can't read " + c.getName() + "." + field.getName(), ex);
+				}
+			}
+		}
+		return cnt;
+	}
+}
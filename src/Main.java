@@ -1,5 +1,5 @@
 
-import aurelienribon.tweenengine.BaseTween;
+import aurelienribon.monitoring.TweenEvents;
 import aurelienribon.tweenengine.Timeline;
 import aurelienribon.tweenengine.Tween;
 import aurelienribon.tweenengine.TweenCallback;
@@ -7,7 +7,6 @@ import aurelienribon.tweenengine.demo.App;
 import aurelienribon.tweenengine.primitives.MutableFloat;
 import com.badlogic.gdx.backends.lwjgl.LwjglApplication;
 import com.badlogic.gdx.backends.lwjgl.LwjglApplicationConfiguration;
-import java.util.Locale;
 
 
 public class Main {
@@ -24,17 +23,13 @@ public class Main {
 		new LwjglApplication(new App(), cfg);
 
 		// Tests
+		// Callbacks are recorded as aurelienribon.TweenCallback events, with
+		// the name of their source as user data. Run with
+		// -XX:StartFlightRecording=filename=main.jfr to record them, and open
+		// the file with JDK Mission Control or "jfr print".
 
 		float step = 0.0001f;
-
-		System.out.println("-----------------------------------------------");
-		System.out.println("Tween (v:value, lt:localTime, gt:globalTime)");
-		System.out.println("-----------------------------------------------");
 		testTween(step);
-
-		System.out.println("-----------------------------------------------");
-		System.out.println("Timeline (v:value, lt:localTime, gt:globalTime)");
-		System.out.println("-----------------------------------------------");
 		testTimeline(step);
 	}
 
@@ -42,19 +37,17 @@ public class Main {
 		MutableFloat target = new MutableFloat(0);
 		Tween t = Tween.to(target, 0, 1.0f).target(1).repeat(2, 1).delay(1).start();
 
-		t.setCallback(buildCallback("t", target, t)).setCallbackTriggers(TweenCallback.ANY);
+		t.setUserData("t").setCallback(TweenEvents.trace(null)).setCallbackTriggers(TweenCallback.ANY);
 
 		float acc = 0;
 		while (acc < t.getFullDuration()+1) {
 			t.update(step);
 			acc += step;
 		}
-		System.out.println("-----------------------------------------------");
 		while (acc > -1) {
 			t.update(-step);
 			acc -= step;
 		}
-		System.out.println("-----------------------------------------------");
 		while (acc < t.getFullDuration()+1) {
 			t.update(step);
 			acc += step;
@@ -73,43 +66,22 @@ public class Main {
 			.repeat(1, 10)
 			.start();
 
-		tl.setCallback(buildCallback("TL", null, tl)).setCallbackTriggers(TweenCallback.ANY);
-		t1.setCallback(buildCallback("t1", target1, tl)).setCallbackTriggers(TweenCallback.ANY);
-		t2.setCallback(buildCallback("t2", target2, tl)).setCallbackTriggers(TweenCallback.ANY);
+		tl.setUserData("TL").setCallback(TweenEvents.trace(null)).setCallbackTriggers(TweenCallback.ANY);
+		t1.setUserData("t1").setCallback(TweenEvents.trace(null)).setCallbackTriggers(TweenCallback.ANY);
+		t2.setUserData("t2").setCallback(TweenEvents.trace(null)).setCallbackTriggers(TweenCallback.ANY);
 
 		float acc = 0;
 		while (acc < tl.getFullDuration()+1) {
 			tl.update(step);
 			acc += step;
 		}
-		System.out.println("-----------------------------------------------");
 		while (acc > -1) {
 			tl.update(-step);
 			acc -= step;
 		}
-		System.out.println("-----------------------------------------------");
 		while (acc < tl.getFullDuration()+1) {
 			tl.update(step);
 			acc += step;
 		}
 	}
-
-	private static TweenCallback buildCallback(final String name, final MutableFloat target, final BaseTween<?> timeSource) {
-		return new TweenCallback() {
-			@Override public void onEvent(int type, BaseTween<?> source) {
-				String t = type == TweenCallback.BEGIN ? "BEGIN        "
-					: type == TweenCallback.START ? "START        "
-					: type == TweenCallback.END ? "END          "
-					: type == TweenCallback.COMPLETE ? "COMPLETE     "
-					: type == TweenCallback.BACK_BEGIN ? "BACK_BEGIN   "
-					: type == TweenCallback.BACK_START ? "BACK_START   "
-					: type == TweenCallback.BACK_END ? "BACK_END     "
-					: type == TweenCallback.BACK_COMPLETE ? "BACK_COMPLETE"
-					: "???";
-
-				String str = String.format(Locale.US, "%s %s v %.2f   lt %.2f   gt %.2f", name, t, target != null ? target.floatValue() : 0, source.getCurrentTime(), timeSource.getCurrentTime());
-				System.out.println(str);
-			}
-		};
-	}
-}
\ No newline at end of file
+}
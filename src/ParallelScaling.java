@@ -0,0 +1,77 @@
+import aurelienribon.accessors.SpriteAccessor;
+import aurelienribon.managers.ParallelTweenManager;
+import aurelienribon.tweenengine.Timeline;
+import aurelienribon.tweenengine.Tween;
+import aurelienribon.tweenengine.equations.Back;
+import aurelienribon.tweenengine.equations.Elastic;
+import aurelienribon.tweenengine.equations.Quad;
+import com.badlogic.gdx.graphics.g2d.Sprite;
+import java.util.Locale;
+
+/**
+ * Console program measuring how ParallelTweenManager scales with 1, 2, 4 and
+ * 8 threads. Usage: ParallelScaling [spritesCount]
+ */
+public class ParallelScaling {
+	public static void main(String[] args) {
+		int spritesCnt = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+		int[] threads = {1, 2, 4, 8};
+
+		Tween.registerAccessor(Sprite.class, new SpriteAccessor());
+		Tween.setCombinedAttributesLimit(3);
+		Tween.ensurePoolCapacity(spritesCnt * 3);
+		Timeline.ensurePoolCapacity(spritesCnt);
+
+		System.out.println("-----------------------------------------------");
+		System.out.println("ParallelTweenManager, " + spritesCnt + " sprites, "
+			+ Runtime.getRuntime().availableProcessors() + " cores");
+		System.out.println("-----------------------------------------------");
+
+		double reference = 0;
+		for (int t : threads) {
+			double ms = measure(spritesCnt, t);
+			if (t == 1) reference = ms;
+			System.out.println(String.format(Locale.US, "%d thread(s): %.3f ms/update   x%.2f", t, ms, reference / ms));
+		}
+	}
+
+	private static double measure(int spritesCnt, int threadsCnt) {
+		ParallelTweenManager manager = new ParallelTweenManager(threadsCnt);
+		manager.setParallelThreshold(0);
+
+		for (int i=0; i<spritesCnt; i++) {
+			Sprite sp = new Sprite();
+			sp.setSize(1, 1);
+
+			if (i % 4 == 0) {
+				Timeline.createSequence()
+					.push(Tween.to(sp, SpriteAccessor.CPOS_XY, 1.0f).target(3, 1).ease(Back.INOUT))
+					.beginParallel()
+						.push(Tween.to(sp, SpriteAccessor.SCALE_XY, 0.5f).target(2, 2).ease(Quad.OUT))
+						.push(Tween.to(sp, SpriteAccessor.ROTATION, 0.5f).target(360))
+					.end()
+					.repeatYoyo(Tween.INFINITY, 0.2f)
+					.start(manager);
+			} else {
+				Tween.to(sp, SpriteAccessor.CPOS_XY, 1.0f)
+					.target(3, 1)
+					.ease(Elastic.OUT)
+					.repeatYoyo(Tween.INFINITY, 0.1f)
+					.start(manager);
+			}
+		}
+
+		float dt = 1/60f;
+		for (int i=0; i<300; i++) manager.update(dt);
+
+		int frames = 600;
+		long start = System.nanoTime();
+		for (int i=0; i<frames; i++) manager.update(dt);
+		long end = System.nanoTime();
+
+		manager.killAll();
+		manager.update(0);
+		manager.dispose();
+		return (end - start) / 1e6 / frames;
+	}
+}
@@ -0,0 +1,16 @@
+package aurelienribon.accessors;
+
+import aurelienribon.tweenengine.TweenAccessor;
+
+/**
+ * A TweenAccessor also able to write one tween type to many targets in a
+ * single call, used by managers deferring their writes to the end of the
+ * frame (see DeferredTweenManager).
+ */
+public interface BulkTweenAccessor<T> extends TweenAccessor<T> {
+	/**
+	 * Sets the values of the given tween type for the first count targets.
+	 * The values of the i-th target start at values[i * stride].
+	 */
+	public void setValues(Object[] targets, int tweenType, float[] values, int stride, int count);
+}
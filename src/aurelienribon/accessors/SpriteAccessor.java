@@ -1,6 +1,5 @@
 package aurelienribon.accessors;
 
-import aurelienribon.tweenengine.TweenAccessor;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.g2d.Sprite;
 
@@ -16,7 +15,7 @@ import com.badlogic.gdx.graphics.g2d.Sprite;
  * api里接口是:TweenAccessor<T>.使用了泛型技术.
  * 这里使得Sprite的属性和Tween的值结合起来了.
  */
-public class SpriteAccessor implements TweenAccessor<Sprite> {
+public class SpriteAccessor implements BulkTweenAccessor<Sprite> {
 	public static final int POS_XY = 1;		// sprite的原点
 	public static final int CPOS_XY = 2;	// sprite的中心点
 	public static final int SCALE_XY = 3;	// 缩放
@@ -65,14 +64,52 @@ public class SpriteAccessor implements TweenAccessor<Sprite> {
 
 			case OPACITY:
 				Color c = target.getColor();
-				c.set(c.r, c.g, c.b, newValues[0]);
-				target.setColor(c);
+				target.setColor(c.r, c.g, c.b, SpriteAccessors.clamp(newValues[0]));
 				break;
 
 			case TINT:
-				c = target.getColor();
-				c.set(newValues[0], newValues[1], newValues[2], c.a);
-				target.setColor(c);
+				target.setColor(SpriteAccessors.clamp(newValues[0]), SpriteAccessors.clamp(newValues[1]), SpriteAccessors.clamp(newValues[2]), target.getColor().a);
+				break;
+
+			default: assert false;
+		}
+	}
+
+	@Override
+	public void setValues(Object[] targets, int tweenType, float[] values, int stride, int count) {
+		switch (tweenType) {
+			case POS_XY:
+				for (int i=0, off=0; i<count; i++, off+=stride) ((Sprite) targets[i]).setPosition(values[off], values[off+1]);
+				break;
+
+			case CPOS_XY:
+				for (int i=0, off=0; i<count; i++, off+=stride) {
+					Sprite target = (Sprite) targets[i];
+					target.setPosition(values[off] - target.getWidth()/2, values[off+1] - target.getHeight()/2);
+				}
+				break;
+
+			case SCALE_XY:
+				for (int i=0, off=0; i<count; i++, off+=stride) ((Sprite) targets[i]).setScale(values[off], values[off+1]);
+				break;
+
+			case ROTATION:
+				for (int i=0, off=0; i<count; i++, off+=stride) ((Sprite) targets[i]).setRotation(values[off]);
+				break;
+
+			case OPACITY:
+				for (int i=0, off=0; i<count; i++, off+=stride) {
+					Sprite target = (Sprite) targets[i];
+					Color c = target.getColor();
+					target.setColor(c.r, c.g, c.b, SpriteAccessors.clamp(values[off]));
+				}
+				break;
+
+			case TINT:
+				for (int i=0, off=0; i<count; i++, off+=stride) {
+					Sprite target = (Sprite) targets[i];
+					target.setColor(SpriteAccessors.clamp(values[off]), SpriteAccessors.clamp(values[off+1]), SpriteAccessors.clamp(values[off+2]), target.getColor().a);
+				}
 				break;
 
 			default: assert false;
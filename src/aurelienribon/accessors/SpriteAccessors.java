@@ -0,0 +1,118 @@
+package aurelienribon.accessors;
+
+import aurelienribon.tweenengine.TweenAccessor;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.Sprite;
+
+/**
+ * One accessor per SpriteAccessor tween type, to be used through
+ * {@link TypedAccessors}. Color accessors unpack the current vertex color and
+ * write the new one with Sprite.setColor(r, g, b, a), which packs it straight
+ * into the vertices, instead of going through an intermediate Color.
+ */
+public class SpriteAccessors {
+	/**
+	 * Registers every accessor of this class for the Sprite class.
+	 */
+	public static void registerAll() {
+		TypedAccessors.register(Sprite.class, SpriteAccessor.POS_XY, new Position());
+		TypedAccessors.register(Sprite.class, SpriteAccessor.CPOS_XY, new CenterPosition());
+		TypedAccessors.register(Sprite.class, SpriteAccessor.SCALE_XY, new Scale());
+		TypedAccessors.register(Sprite.class, SpriteAccessor.ROTATION, new Rotation());
+		TypedAccessors.register(Sprite.class, SpriteAccessor.OPACITY, new Opacity());
+		TypedAccessors.register(Sprite.class, SpriteAccessor.TINT, new Tint());
+	}
+
+	public static final class Position implements TweenAccessor<Sprite> {
+		@Override
+		public int getValues(Sprite target, int tweenType, float[] returnValues) {
+			returnValues[0] = target.getX();
+			returnValues[1] = target.getY();
+			return 2;
+		}
+
+		@Override
+		public void setValues(Sprite target, int tweenType, float[] newValues) {
+			target.setPosition(newValues[0], newValues[1]);
+		}
+	}
+
+	public static final class CenterPosition implements TweenAccessor<Sprite> {
+		@Override
+		public int getValues(Sprite target, int tweenType, float[] returnValues) {
+			returnValues[0] = target.getX() + target.getWidth()/2;
+			returnValues[1] = target.getY() + target.getHeight()/2;
+			return 2;
+		}
+
+		@Override
+		public void setValues(Sprite target, int tweenType, float[] newValues) {
+			target.setPosition(newValues[0] - target.getWidth()/2, newValues[1] - target.getHeight()/2);
+		}
+	}
+
+	public static final class Scale implements TweenAccessor<Sprite> {
+		@Override
+		public int getValues(Sprite target, int tweenType, float[] returnValues) {
+			returnValues[0] = target.getScaleX();
+			returnValues[1] = target.getScaleY();
+			return 2;
+		}
+
+		@Override
+		public void setValues(Sprite target, int tweenType, float[] newValues) {
+			target.setScale(newValues[0], newValues[1]);
+		}
+	}
+
+	public static final class Rotation implements TweenAccessor<Sprite> {
+		@Override
+		public int getValues(Sprite target, int tweenType, float[] returnValues) {
+			returnValues[0] = target.getRotation();
+			return 1;
+		}
+
+		@Override
+		public void setValues(Sprite target, int tweenType, float[] newValues) {
+			target.setRotation(newValues[0]);
+		}
+	}
+
+	public static final class Opacity implements TweenAccessor<Sprite> {
+		@Override
+		public int getValues(Sprite target, int tweenType, float[] returnValues) {
+			returnValues[0] = target.getColor().a;
+			return 1;
+		}
+
+		@Override
+		public void setValues(Sprite target, int tweenType, float[] newValues) {
+			Color c = target.getColor();
+			target.setColor(c.r, c.g, c.b, clamp(newValues[0]));
+		}
+	}
+
+	public static final class Tint implements TweenAccessor<Sprite> {
+		@Override
+		public int getValues(Sprite target, int tweenType, float[] returnValues) {
+			Color c = target.getColor();
+			returnValues[0] = c.r;
+			returnValues[1] = c.g;
+			returnValues[2] = c.b;
+			return 3;
+		}
+
+		@Override
+		public void setValues(Sprite target, int tweenType, float[] newValues) {
+			target.setColor(clamp(newValues[0]), clamp(newValues[1]), clamp(newValues[2]), target.getColor().a);
+		}
+	}
+
+	/**
+	 * Sprite.setColor(r, g, b, a) does not clamp, and a channel out of [0,1]
+	 * would overflow into its neighbours once packed.
+	 */
+	static float clamp(float v) {
+		return v < 0 ? 0 : v > 1 ? 1 : v;
+	}
+}
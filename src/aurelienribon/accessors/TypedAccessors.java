@@ -0,0 +1,80 @@
+package aurelienribon.accessors;
+
+import aurelienribon.tweenengine.Tween;
+import aurelienribon.tweenengine.TweenAccessor;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Registry of accessors dedicated to a single (class, tweenType) pair.
+ * <p>
+ *
+ * A class-wide accessor, like SpriteAccessor, dispatches on the tween type
+ * at every call. A dedicated accessor only handles one type, so it needs no
+ * switch and can be inlined by the JIT. Each of them is registered to Tween
+ * under its own class, and tweens are pointed to it with Tween.cast(), so
+ * the accessor is resolved once, when the tween is built:
+ * <pre>
+ * TypedAccessors.register(Sprite.class, SpriteAccessor.OPACITY, new SpriteAccessors.Opacity());
+ * TypedAccessors.to(sprite, SpriteAccessor.OPACITY, 1.0f).target(0).start(tweenManager);
+ * </pre>
+ *
+ * Tween types without a dedicated accessor keep using the accessor
+ * registered for the target class.
+ */
+public class TypedAccessors {
+	private static final Map<Class<?>, TweenAccessor<?>[]> accessors = new HashMap<Class<?>, TweenAccessor<?>[]>();
+
+	/**
+	 * Registers an accessor dedicated to the given tween type of the given
+	 * class. Every registered accessor needs to be of a different class.
+	 */
+	public static <T> void register(Class<T> someClass, int tweenType, TweenAccessor<T> accessor) {
+		if (tweenType < 0) throw new RuntimeException("Tween type must be >= 0");
+
+		TweenAccessor<?> previous = Tween.getRegisteredAccessor(accessor.getClass());
+		if (previous != null && previous != accessor) throw new RuntimeException("Every accessor needs its own class");
+
+		TweenAccessor<?>[] typeAccessors = accessors.get(someClass);
+		if (typeAccessors == null) typeAccessors = new TweenAccessor<?>[tweenType+1];
+		if (typeAccessors.length <= tweenType) typeAccessors = Arrays.copyOf(typeAccessors, tweenType+1);
+		typeAccessors[tweenType] = accessor;
+		accessors.put(someClass, typeAccessors);
+
+		Tween.registerAccessor(accessor.getClass(), accessor);
+	}
+
+	/**
+	 * Gets the accessor dedicated to the given tween type of the given class,
+	 * or null if none was registered.
+	 */
+	public static TweenAccessor<?> get(Class<?> someClass, int tweenType) {
+		TweenAccessor<?>[] typeAccessors = accessors.get(someClass);
+		if (typeAccessors == null || tweenType < 0 || tweenType >= typeAccessors.length) return null;
+		return typeAccessors[tweenType];
+	}
+
+	/**
+	 * Points the given tween to the accessor dedicated to its type, if any.
+	 * The tween must not be started.
+	 */
+	public static Tween specialize(Tween tween) {
+		if (tween.getTarget() == null) return tween;
+		TweenAccessor<?> accessor = get(tween.getTargetClass(), tween.getType());
+		if (accessor != null) tween.cast(accessor.getClass());
+		return tween;
+	}
+
+	public static Tween to(Object target, int tweenType, float duration) {
+		return specialize(Tween.to(target, tweenType, duration));
+	}
+
+	public static Tween from(Object target, int tweenType, float duration) {
+		return specialize(Tween.from(target, tweenType, duration));
+	}
+
+	public static Tween set(Object target, int tweenType) {
+		return specialize(Tween.set(target, tweenType));
+	}
+}
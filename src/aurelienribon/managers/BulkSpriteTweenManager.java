@@ -0,0 +1,520 @@
+package aurelienribon.managers;
+
+import aurelienribon.accessors.SpriteAccessor;
+import aurelienribon.tweenengine.TweenEquation;
+import aurelienribon.tweenengine.TweenManager;
+import aurelienribon.tweenengine.TweenPath;
+import aurelienribon.tweenengine.TweenPaths;
+import aurelienribon.tweenengine.equations.Quad;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.Sprite;
+import java.util.Arrays;
+
+/**
+ * A TweenManager that also runs "bulk" tweens on Sprites. Bulk tweens don't
+ * use pooled Tween objects: their start values, targets, durations, delays
+ * and easing ids are stored in primitive columns, updated in a single loop,
+ * and written back to the sprites in a second pass.
+ * <p>
+ *
+ * They are built with the same chained calls as regular tweens:
+ * <pre>
+ * manager.to(sprite, SpriteAccessor.CPOS_XY, 0.7f)
+ *     .ease(Cubic.INOUT)
+ *     .target(3, 1)
+ *     .repeatYoyo(-1, 0.3f)
+ *     .delay(0.5f)
+ *     .start();
+ * </pre>
+ *
+ * Bulk tweens support delays, repetitions (yoyo or not), relative targets and
+ * waypoints, but no callbacks: use regular tweens, still accepted by
+ * {@link #add}, when you need them. Time can only go forward.
+ */
+public class BulkSpriteTweenManager extends TweenManager {
+	public static final int MAX_ATTRIBUTES = 3;
+	public static final int MAX_WAYPOINTS = 10;
+
+	private static final int FLAG_RELATIVE = 1;
+	private static final int FLAG_YOYO = 2;
+	private static final int FLAG_INITIALIZED = 4;
+
+	private final Builder builder = new Builder();
+	private final SpriteAccessor accessor = new SpriteAccessor();
+	private final float[] accessorBuffer = new float[MAX_ATTRIBUTES];
+	private final float[] pathBuffer = new float[MAX_WAYPOINTS + 2];
+
+	private TweenEquation[] equations = new TweenEquation[8];
+	private int equationsCnt;
+	private TweenPath[] paths = new TweenPath[4];
+	private int pathsCnt;
+
+	// Columns, one row per bulk tween
+	private int size;
+	private int capacity;
+	private Sprite[] targets;
+	private int[] types;
+	private int[] attrCnts;
+	private int[] easeIds;
+	private int[] pathIds;
+	private int[] flags;
+	private int[] repeatCnts;
+	private int[] waypointsCnts;
+	private float[] delays;
+	private float[] durations;
+	private float[] repeatDelays;
+	private float[] times;
+	private float[] startValues;
+	private float[] targetValues;
+	private float[] currentValues;
+	private float[] waypoints;
+
+	private boolean isPaused;
+
+	public BulkSpriteTweenManager() {
+		this(64);
+	}
+
+	public BulkSpriteTweenManager(int capacity) {
+		allocate(Math.max(capacity, 1));
+	}
+
+	// -------------------------------------------------------------------------
+	// Builder API
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Starts the description of a bulk tween interpolating the given
+	 * attribute of the sprite. Nothing is added until {@link Builder#start()}
+	 * is called. The returned builder is shared: describe and start one
+	 * tween at a time.
+	 */
+	public Builder to(Sprite target, int tweenType, float duration) {
+		builder.setup(target, tweenType, duration);
+		return builder;
+	}
+
+	/**
+	 * Starts the description of a bulk tween setting instantly the given
+	 * attribute of the sprite.
+	 */
+	public Builder set(Sprite target, int tweenType) {
+		builder.setup(target, tweenType, 0);
+		return builder;
+	}
+
+	public class Builder {
+		private Sprite target;
+		private int type;
+		private int attrCnt;
+		private float duration;
+		private float delay;
+		private int repeatCnt;
+		private float repeatDelay;
+		private boolean isYoyo;
+		private boolean isRelative;
+		private TweenEquation equation;
+		private TweenPath path;
+		private int waypointsCnt;
+		private final float[] targetValues = new float[MAX_ATTRIBUTES];
+		private final float[] waypoints = new float[MAX_WAYPOINTS * MAX_ATTRIBUTES];
+
+		private void setup(Sprite target, int type, float duration) {
+			if (duration < 0) throw new RuntimeException("Duration can't be negative");
+			this.target = target;
+			this.type = type;
+			this.attrCnt = getAttributesCount(type);
+			this.duration = duration;
+			this.delay = 0;
+			this.repeatCnt = 0;
+			this.repeatDelay = 0;
+			this.isYoyo = false;
+			this.isRelative = false;
+			this.equation = Quad.INOUT;
+			this.path = TweenPaths.catmullRom;
+			this.waypointsCnt = 0;
+		}
+
+		public Builder ease(TweenEquation easeEquation) {
+			this.equation = easeEquation;
+			return this;
+		}
+
+		public Builder delay(float delay) {
+			this.delay += delay;
+			return this;
+		}
+
+		public Builder repeat(int count, float delay) {
+			this.repeatCnt = count;
+			this.repeatDelay = delay >= 0 ? delay : 0;
+			this.isYoyo = false;
+			return this;
+		}
+
+		public Builder repeatYoyo(int count, float delay) {
+			repeat(count, delay);
+			this.isYoyo = true;
+			return this;
+		}
+
+		public Builder target(float targetValue) {
+			targetValues[0] = targetValue;
+			return this;
+		}
+
+		public Builder target(float targetValue1, float targetValue2) {
+			targetValues[0] = targetValue1;
+			targetValues[1] = targetValue2;
+			return this;
+		}
+
+		public Builder target(float targetValue1, float targetValue2, float targetValue3) {
+			targetValues[0] = targetValue1;
+			targetValues[1] = targetValue2;
+			targetValues[2] = targetValue3;
+			return this;
+		}
+
+		public Builder targetRelative(float targetValue) {
+			isRelative = true;
+			return target(targetValue);
+		}
+
+		public Builder targetRelative(float targetValue1, float targetValue2) {
+			isRelative = true;
+			return target(targetValue1, targetValue2);
+		}
+
+		public Builder targetRelative(float targetValue1, float targetValue2, float targetValue3) {
+			isRelative = true;
+			return target(targetValue1, targetValue2, targetValue3);
+		}
+
+		public Builder waypoint(float targetValue) {
+			return waypoint(targetValue, 0, 0);
+		}
+
+		public Builder waypoint(float targetValue1, float targetValue2) {
+			return waypoint(targetValue1, targetValue2, 0);
+		}
+
+		public Builder waypoint(float targetValue1, float targetValue2, float targetValue3) {
+			if (waypointsCnt == MAX_WAYPOINTS) throw new RuntimeException("You cannot add more than " + MAX_WAYPOINTS + " waypoints to a bulk tween");
+			int off = waypointsCnt * MAX_ATTRIBUTES;
+			waypoints[off] = targetValue1;
+			waypoints[off+1] = targetValue2;
+			waypoints[off+2] = targetValue3;
+			waypointsCnt += 1;
+			return this;
+		}
+
+		public Builder path(TweenPath path) {
+			this.path = path;
+			return this;
+		}
+
+		/**
+		 * Adds the described tween to the manager columns.
+		 */
+		public void start() {
+			if (target == null) throw new RuntimeException("The builder was already started");
+			push(this);
+			target = null;
+		}
+	}
+
+	// -------------------------------------------------------------------------
+	// TweenManager overrides
+	// -------------------------------------------------------------------------
+
+	@Override
+	public boolean containsTarget(Object target) {
+		for (int i=0; i<size; i++) if (targets[i] == target) return true;
+		return super.containsTarget(target);
+	}
+
+	@Override
+	public boolean containsTarget(Object target, int tweenType) {
+		for (int i=0; i<size; i++) if (targets[i] == target && types[i] == tweenType) return true;
+		return super.containsTarget(target, tweenType);
+	}
+
+	@Override
+	public void killAll() {
+		Arrays.fill(targets, 0, size, null);
+		size = 0;
+		super.killAll();
+	}
+
+	@Override
+	public void killTarget(Object target) {
+		for (int i=size-1; i>=0; i--) if (targets[i] == target) remove(i);
+		super.killTarget(target);
+	}
+
+	@Override
+	public void killTarget(Object target, int tweenType) {
+		for (int i=size-1; i>=0; i--) if (targets[i] == target && types[i] == tweenType) remove(i);
+		super.killTarget(target, tweenType);
+	}
+
+	@Override
+	public void ensureCapacity(int minCapacity) {
+		if (minCapacity > capacity) allocate(minCapacity);
+		super.ensureCapacity(minCapacity);
+	}
+
+	@Override
+	public void pause() {
+		isPaused = true;
+		super.pause();
+	}
+
+	@Override
+	public void resume() {
+		isPaused = false;
+		super.resume();
+	}
+
+	@Override
+	public int size() {
+		return size + super.size();
+	}
+
+	/**
+	 * Gets the number of bulk tweens currently managed.
+	 */
+	public int getBulkTweensCount() {
+		return size;
+	}
+
+	@Override
+	public void update(float delta) {
+		super.update(delta);
+		if (isPaused || size == 0) return;
+		if (delta > 0) step(delta);
+		writeBack();
+		removeFinished();
+	}
+
+	// -------------------------------------------------------------------------
+	// Helpers
+	// -------------------------------------------------------------------------
+
+	private void push(Builder b) {
+		if (size == capacity) allocate(capacity * 2);
+
+		int i = size++;
+		targets[i] = b.target;
+		types[i] = b.type;
+		attrCnts[i] = b.attrCnt;
+		easeIds[i] = getEquationId(b.equation);
+		pathIds[i] = getPathId(b.path);
+		flags[i] = (b.isRelative ? FLAG_RELATIVE : 0) | (b.isYoyo ? FLAG_YOYO : 0);
+		repeatCnts[i] = b.repeatCnt;
+		waypointsCnts[i] = b.waypointsCnt;
+		delays[i] = b.delay;
+		durations[i] = b.duration;
+		repeatDelays[i] = b.repeatDelay;
+		times[i] = 0;
+		System.arraycopy(b.targetValues, 0, targetValues, i * MAX_ATTRIBUTES, MAX_ATTRIBUTES);
+		System.arraycopy(b.waypoints, 0, waypoints, i * MAX_WAYPOINTS * MAX_ATTRIBUTES, b.waypointsCnt * MAX_ATTRIBUTES);
+	}
+
+	/**
+	 * Advances every bulk tween and computes its current values.
+	 */
+	private void step(float delta) {
+		for (int i=0; i<size; i++) {
+			float time = times[i] += delta;
+			if (time < delays[i]) continue;
+
+			int attrCnt = attrCnts[i];
+			int off = i * MAX_ATTRIBUTES;
+
+			if ((flags[i] & FLAG_INITIALIZED) == 0) {
+				initialize(i, off, attrCnt);
+			}
+
+			float duration = durations[i];
+			float period = duration + repeatDelays[i];
+			float localTime = time - delays[i];
+			int iteration = period > 0 ? (int) (localTime / period) : 0;
+			int repeatCnt = repeatCnts[i];
+
+			float t;
+			if (repeatCnt >= 0 && (iteration > repeatCnt || period <= 0)) {
+				iteration = repeatCnt;
+				t = 1;
+			} else {
+				float iterationTime = localTime - iteration * period;
+				t = iterationTime >= duration ? 1 : iterationTime / duration;
+			}
+
+			if ((flags[i] & FLAG_YOYO) != 0 && iteration % 2 == 1) t = 1 - t;
+			t = equations[easeIds[i]].compute(t);
+
+			int wpCnt = waypointsCnts[i];
+			if (wpCnt == 0) {
+				for (int a=0; a<attrCnt; a++) {
+					float start = startValues[off+a];
+					currentValues[off+a] = start + t * (targetValues[off+a] - start);
+				}
+			} else {
+				TweenPath path = paths[pathIds[i]];
+				int wpOff = i * MAX_WAYPOINTS * MAX_ATTRIBUTES;
+				for (int a=0; a<attrCnt; a++) {
+					pathBuffer[0] = startValues[off+a];
+					for (int w=0; w<wpCnt; w++) pathBuffer[w+1] = waypoints[wpOff + w*MAX_ATTRIBUTES + a];
+					pathBuffer[wpCnt+1] = targetValues[off+a];
+					currentValues[off+a] = path.compute(t, pathBuffer, wpCnt+2);
+				}
+			}
+		}
+	}
+
+	private void initialize(int i, int off, int attrCnt) {
+		accessor.getValues(targets[i], types[i], accessorBuffer);
+		for (int a=0; a<attrCnt; a++) {
+			startValues[off+a] = accessorBuffer[a];
+			if ((flags[i] & FLAG_RELATIVE) != 0) {
+				targetValues[off+a] += accessorBuffer[a];
+				int wpOff = i * MAX_WAYPOINTS * MAX_ATTRIBUTES;
+				for (int w=0; w<waypointsCnts[i]; w++) waypoints[wpOff + w*MAX_ATTRIBUTES + a] += accessorBuffer[a];
+			}
+		}
+		flags[i] |= FLAG_INITIALIZED;
+	}
+
+	/**
+	 * Writes the current values of every started bulk tween to its sprite.
+	 */
+	private void writeBack() {
+		for (int i=0; i<size; i++) {
+			if ((flags[i] & FLAG_INITIALIZED) == 0) continue;
+
+			Sprite sp = targets[i];
+			int off = i * MAX_ATTRIBUTES;
+			float v0 = currentValues[off];
+
+			switch (types[i]) {
+				case SpriteAccessor.POS_XY: sp.setPosition(v0, currentValues[off+1]); break;
+				case SpriteAccessor.CPOS_XY: sp.setPosition(v0 - sp.getWidth()/2, currentValues[off+1] - sp.getHeight()/2); break;
+				case SpriteAccessor.SCALE_XY: sp.setScale(v0, currentValues[off+1]); break;
+				case SpriteAccessor.ROTATION: sp.setRotation(v0); break;
+
+				case SpriteAccessor.OPACITY:
+					Color c = sp.getColor();
+					sp.setColor(c.r, c.g, c.b, v0);
+					break;
+
+				case SpriteAccessor.TINT:
+					c = sp.getColor();
+					sp.setColor(v0, currentValues[off+1], currentValues[off+2], c.a);
+					break;
+			}
+		}
+	}
+
+	private void removeFinished() {
+		for (int i=size-1; i>=0; i--) {
+			int repeatCnt = repeatCnts[i];
+			if (repeatCnt < 0 || (flags[i] & FLAG_INITIALIZED) == 0) continue;
+			float fullDuration = delays[i] + durations[i] + repeatCnt * (durations[i] + repeatDelays[i]);
+			if (times[i] >= fullDuration) remove(i);
+		}
+	}
+
+	/**
+	 * Removes a row by moving the last row into its slot.
+	 */
+	private void remove(int i) {
+		int last = --size;
+		if (i != last) {
+			targets[i] = targets[last];
+			types[i] = types[last];
+			attrCnts[i] = attrCnts[last];
+			easeIds[i] = easeIds[last];
+			pathIds[i] = pathIds[last];
+			flags[i] = flags[last];
+			repeatCnts[i] = repeatCnts[last];
+			waypointsCnts[i] = waypointsCnts[last];
+			delays[i] = delays[last];
+			durations[i] = durations[last];
+			repeatDelays[i] = repeatDelays[last];
+			times[i] = times[last];
+			System.arraycopy(startValues, last * MAX_ATTRIBUTES, startValues, i * MAX_ATTRIBUTES, MAX_ATTRIBUTES);
+			System.arraycopy(targetValues, last * MAX_ATTRIBUTES, targetValues, i * MAX_ATTRIBUTES, MAX_ATTRIBUTES);
+			System.arraycopy(currentValues, last * MAX_ATTRIBUTES, currentValues, i * MAX_ATTRIBUTES, MAX_ATTRIBUTES);
+			int wpLen = MAX_WAYPOINTS * MAX_ATTRIBUTES;
+			System.arraycopy(waypoints, last * wpLen, waypoints, i * wpLen, waypointsCnts[last] * MAX_ATTRIBUTES);
+		}
+		targets[last] = null;
+	}
+
+	private void allocate(int newCapacity) {
+		if (capacity == 0) {
+			targets = new Sprite[newCapacity];
+			types = new int[newCapacity];
+			attrCnts = new int[newCapacity];
+			easeIds = new int[newCapacity];
+			pathIds = new int[newCapacity];
+			flags = new int[newCapacity];
+			repeatCnts = new int[newCapacity];
+			waypointsCnts = new int[newCapacity];
+			delays = new float[newCapacity];
+			durations = new float[newCapacity];
+			repeatDelays = new float[newCapacity];
+			times = new float[newCapacity];
+			startValues = new float[newCapacity * MAX_ATTRIBUTES];
+			targetValues = new float[newCapacity * MAX_ATTRIBUTES];
+			currentValues = new float[newCapacity * MAX_ATTRIBUTES];
+			waypoints = new float[newCapacity * MAX_WAYPOINTS * MAX_ATTRIBUTES];
+		} else {
+			targets = Arrays.copyOf(targets, newCapacity);
+			types = Arrays.copyOf(types, newCapacity);
+			attrCnts = Arrays.copyOf(attrCnts, newCapacity);
+			easeIds = Arrays.copyOf(easeIds, newCapacity);
+			pathIds = Arrays.copyOf(pathIds, newCapacity);
+			flags = Arrays.copyOf(flags, newCapacity);
+			repeatCnts = Arrays.copyOf(repeatCnts, newCapacity);
+			waypointsCnts = Arrays.copyOf(waypointsCnts, newCapacity);
+			delays = Arrays.copyOf(delays, newCapacity);
+			durations = Arrays.copyOf(durations, newCapacity);
+			repeatDelays = Arrays.copyOf(repeatDelays, newCapacity);
+			times = Arrays.copyOf(times, newCapacity);
+			startValues = Arrays.copyOf(startValues, newCapacity * MAX_ATTRIBUTES);
+			targetValues = Arrays.copyOf(targetValues, newCapacity * MAX_ATTRIBUTES);
+			currentValues = Arrays.copyOf(currentValues, newCapacity * MAX_ATTRIBUTES);
+			waypoints = Arrays.copyOf(waypoints, newCapacity * MAX_WAYPOINTS * MAX_ATTRIBUTES);
+		}
+		capacity = newCapacity;
+	}
+
+	private int getEquationId(TweenEquation equation) {
+		for (int i=0; i<equationsCnt; i++) if (equations[i] == equation) return i;
+		if (equationsCnt == equations.length) equations = Arrays.copyOf(equations, equationsCnt * 2);
+		equations[equationsCnt] = equation;
+		return equationsCnt++;
+	}
+
+	private int getPathId(TweenPath path) {
+		for (int i=0; i<pathsCnt; i++) if (paths[i] == path) return i;
+		if (pathsCnt == paths.length) paths = Arrays.copyOf(paths, pathsCnt * 2);
+		paths[pathsCnt] = path;
+		return pathsCnt++;
+	}
+
+	private static int getAttributesCount(int tweenType) {
+		switch (tweenType) {
+			case SpriteAccessor.POS_XY:
+			case SpriteAccessor.CPOS_XY:
+			case SpriteAccessor.SCALE_XY: return 2;
+			case SpriteAccessor.ROTATION:
+			case SpriteAccessor.OPACITY: return 1;
+			case SpriteAccessor.TINT: return 3;
+			default: throw new RuntimeException("Unknown tween type: " + tweenType);
+		}
+	}
+}
@@ -0,0 +1,251 @@
+package aurelienribon.managers;
+
+import aurelienribon.accessors.BulkTweenAccessor;
+import aurelienribon.tweenengine.BaseTween;
+import aurelienribon.tweenengine.Timeline;
+import aurelienribon.tweenengine.Tween;
+import aurelienribon.tweenengine.TweenAccessor;
+import aurelienribon.tweenengine.TweenManager;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A TweenManager deferring the accessor writes of its tweens to the end of
+ * update().
+ * <p>
+ *
+ * During an update, the values set by the tweens are collected per (accessor,
+ * tweenType) group, keeping only the last values of every target. They are
+ * flushed once the update is done, one call per group if the accessor is a
+ * {@link BulkTweenAccessor}, or one call per target otherwise. Every target
+ * is thus written once per tween type and per frame, whatever the number of
+ * tweens animating it.
+ * <p>
+ *
+ * Pending writes are flushed before any accessor read, so that tweens
+ * starting in the middle of an update see up-to-date values. Writes of
+ * different tween types are flushed type by type: types writing the same
+ * attribute (like SpriteAccessor POS_XY and CPOS_XY) should not be animated
+ * together on one target. Only Tween objects are deferred, other BaseTween
+ * implementations write directly.
+ * <p>
+ *
+ * Recording costs more than a plain field write: Sprites, which only flag
+ * their vertices as dirty until drawn, are updated about twice slower than
+ * with a TweenManager (see DeferredTweenManagerBenchmark). This manager pays
+ * off with accessors doing real work on every write, or when several tweens
+ * write the same attributes of a target in a frame.
+ */
+public class DeferredTweenManager extends TweenManager {
+	private static final Field accessorField;
+
+	static {
+		try {
+			accessorField = Tween.class.getDeclaredField("accessor");
+			accessorField.setAccessible(true);
+		} catch (NoSuchFieldException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	private final Map<TweenAccessor<?>, Recorder> recorders = new IdentityHashMap<TweenAccessor<?>, Recorder>();
+	private final List<Group> pendingGroups = new ArrayList<Group>();
+	private boolean isRecording;
+	private int writesCnt;
+	private int flushedWritesCnt;
+
+	// -------------------------------------------------------------------------
+	// Public API
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Gets the number of accessor writes made by the tweens during the last
+	 * update.
+	 */
+	public int getWritesCount() {
+		return writesCnt;
+	}
+
+	/**
+	 * Gets the number of accessor writes actually made on the targets at the
+	 * end of the last update.
+	 */
+	public int getFlushedWritesCount() {
+		return flushedWritesCnt;
+	}
+
+	// -------------------------------------------------------------------------
+	// TweenManager overrides
+	// -------------------------------------------------------------------------
+
+	@Override
+	public TweenManager add(BaseTween<?> object) {
+		super.add(object);
+		intercept(object);
+		return this;
+	}
+
+	@Override
+	public void update(float delta) {
+		writesCnt = flushedWritesCnt = 0;
+		isRecording = true;
+		try {
+			super.update(delta);
+		} finally {
+			isRecording = false;
+			flush();
+		}
+	}
+
+	// -------------------------------------------------------------------------
+	// Helpers
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Replaces the accessors of the tweens with recorders. Tweens are built
+	 * by the time they are added, so their accessor is already resolved.
+	 */
+	@SuppressWarnings("unchecked")
+	private void intercept(BaseTween<?> obj) {
+		try {
+			if (obj instanceof Tween) {
+				Tween tween = (Tween) obj;
+				TweenAccessor<Object> accessor = (TweenAccessor<Object>) tween.getAccessor();
+				if (accessor == null || accessor instanceof Recorder) return;
+
+				Recorder recorder = recorders.get(accessor);
+				if (recorder == null) recorders.put(accessor, recorder = new Recorder(accessor));
+				accessorField.set(tween, recorder);
+
+			} else if (obj instanceof Timeline) {
+				List<BaseTween<?>> children = TweenReflection.getChildren((Timeline) obj);
+				for (int i=0, n=children.size(); i<n; i++) intercept(children.get(i));
+			}
+		} catch (IllegalAccessException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	private void flush() {
+		for (int i=0, n=pendingGroups.size(); i<n; i++) {
+			Group group = pendingGroups.get(i);
+			flushedWritesCnt += group.size;
+			group.flush();
+		}
+		pendingGroups.clear();
+	}
+
+	/**
+	 * Stands for an accessor in the tweens of this manager.
+	 */
+	private class Recorder implements TweenAccessor<Object> {
+		private final TweenAccessor<Object> accessor;
+		private Group[] groups = new Group[8];
+
+		public Recorder(TweenAccessor<Object> accessor) {
+			this.accessor = accessor;
+		}
+
+		@Override
+		public int getValues(Object target, int tweenType, float[] returnValues) {
+			flush();
+			return accessor.getValues(target, tweenType, returnValues);
+		}
+
+		@Override
+		public void setValues(Object target, int tweenType, float[] newValues) {
+			if (!isRecording || tweenType < 0) {
+				accessor.setValues(target, tweenType, newValues);
+				return;
+			}
+
+			if (tweenType >= groups.length) groups = Arrays.copyOf(groups, tweenType+1);
+			Group group = groups[tweenType];
+			if (group == null) groups[tweenType] = group = new Group(accessor, tweenType, newValues.length);
+
+			if (group.size == 0) pendingGroups.add(group);
+			group.write(target, newValues);
+			writesCnt += 1;
+		}
+	}
+
+	/**
+	 * Pending writes of one tween type through one accessor, with an identity
+	 * hash index of their targets.
+	 */
+	private static class Group {
+		private final TweenAccessor<Object> accessor;
+		private final int type;
+		private final int stride;
+		private final float[] buffer;
+		private Object[] targets = new Object[16];
+		private float[] values;
+		private int size;
+
+		private Object[] keys = new Object[32];
+		private int[] slots = new int[32];
+
+		public Group(TweenAccessor<Object> accessor, int type, int stride) {
+			this.accessor = accessor;
+			this.type = type;
+			this.stride = stride;
+			this.buffer = new float[stride];
+			this.values = new float[targets.length * stride];
+		}
+
+		public void write(Object target, float[] newValues) {
+			int mask = keys.length - 1;
+			int h = (System.identityHashCode(target) * 0x9E3779B9) & mask;
+			while (keys[h] != null && keys[h] != target) h = (h + 1) & mask;
+
+			int slot;
+			if (keys[h] == null) {
+				if (size == targets.length) {
+					targets = Arrays.copyOf(targets, size * 2);
+					values = Arrays.copyOf(values, size * 2 * stride);
+				}
+				slot = size++;
+				targets[slot] = target;
+				keys[h] = target;
+				slots[h] = slot;
+				if (size * 2 > keys.length) rehash();
+			} else {
+				slot = slots[h];
+			}
+
+			for (int i=0, off=slot*stride; i<stride; i++) values[off+i] = newValues[i];
+		}
+
+		@SuppressWarnings("unchecked")
+		public void flush() {
+			if (accessor instanceof BulkTweenAccessor) {
+				((BulkTweenAccessor<Object>) accessor).setValues(targets, type, values, stride, size);
+			} else {
+				for (int i=0; i<size; i++) {
+					System.arraycopy(values, i * stride, buffer, 0, stride);
+					accessor.setValues(targets[i], type, buffer);
+				}
+			}
+
+			Arrays.fill(targets, 0, size, null);
+			Arrays.fill(keys, null);
+			size = 0;
+		}
+
+		private void rehash() {
+			keys = new Object[keys.length * 2];
+			slots = new int[slots.length * 2];
+			int mask = keys.length - 1;
+			for (int slot=0; slot<size; slot++) {
+				int h = (System.identityHashCode(targets[slot]) * 0x9E3779B9) & mask;
+				while (keys[h] != null) h = (h + 1) & mask;
+				keys[h] = targets[slot];
+				slots[h] = slot;
+			}
+		}
+	}
+}
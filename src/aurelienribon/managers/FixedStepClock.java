@@ -0,0 +1,344 @@
+package aurelienribon.managers;
+
+import aurelienribon.tweenengine.BaseTween;
+import aurelienribon.tweenengine.Timeline;
+import aurelienribon.tweenengine.Tween;
+import aurelienribon.tweenengine.TweenAccessor;
+import aurelienribon.tweenengine.TweenManager;
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Advances a TweenManager by fixed steps, whatever the frame delta.
+ * <p>
+ *
+ * The frame deltas, multiplied by the {@link #setTimeScale(float) time
+ * scale}, go in an accumulator, from which the manager is updated by steps
+ * of exactly 1/{@link #getStepsPerSecond() stepsPerSecond} seconds. Tweens
+ * thus go through the same states on every run, and a frame hitch is
+ * caught up with several regular steps instead of a single large one. A
+ * negative time scale steps backwards.
+ * <p>
+ *
+ * At most {@link #setMaxSteps(int) maxSteps} steps are made per frame: after
+ * a long stall, the time beyond that is dropped rather than caught up, so
+ * a slow frame can't cause an even slower one.
+ * <p>
+ *
+ * The time left in the accumulator is less than a step. Unless
+ * interpolation is disabled, the targets of the tweens are shown between
+ * the two last steps, in proportion to that time: before the last step,
+ * the clock saves the values of every (target, tweenType) animated by a
+ * Tween of the manager; after it, it writes the interpolation between them
+ * and the stepped values through the accessors. The stepped values are put
+ * back at the beginning of the next update, unless something else wrote
+ * the target in the meantime. Only Tween objects, and the tweens of
+ * timelines, are interpolated.
+ * <pre>
+ * FixedStepClock clock = new FixedStepClock(manager, 120);
+ * ...
+ * clock.update(Gdx.graphics.getDeltaTime());
+ * </pre>
+ */
+public class FixedStepClock {
+	public static final float DEFAULT_STEPS_PER_SECOND = 120;
+	public static final int DEFAULT_MAX_STEPS = 12;
+
+	/**
+	 * Makes one step. The default stepper updates the manager.
+	 */
+	public interface Stepper {
+		public void step(float delta);
+	}
+
+	private static final Field accessorField;
+	private static final Field combinedAttrsLimitField;
+
+	static {
+		try {
+			accessorField = Tween.class.getDeclaredField("accessor");
+			accessorField.setAccessible(true);
+			combinedAttrsLimitField = Tween.class.getDeclaredField("combinedAttrsLimit");
+			combinedAttrsLimitField.setAccessible(true);
+		} catch (NoSuchFieldException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	private final TweenManager manager;
+	private final List<BaseTween<?>> objects;
+	private final float stepsPerSecond;
+	private final float stepDuration;
+	private final Stepper managerStepper;
+	private int maxSteps = DEFAULT_MAX_STEPS;
+	private float timeScale = 1;
+	private boolean isInterpolated = true;
+
+	private float accumulator;
+	private float alpha;
+	private int stepsCnt;
+	private int totalDroppedSteps;
+
+	// Interpolated (target, tweenType) pairs, with their values before and
+	// after the last step, and as shown. Values of pair i start at
+	// i * attrsLimit.
+	private Object[] targets = new Object[16];
+	private TweenAccessor<Object>[] accessors = newAccessors(16);
+	private int[] types = new int[16];
+	private int[] counts = new int[16];
+	private float[] previous = new float[48];
+	private float[] current = new float[48];
+	private float[] shown = new float[48];
+	private float[] buffer = new float[3];
+	private int pairsCnt;
+	private int attrsLimit;
+	private boolean isShown;
+
+	public FixedStepClock(TweenManager manager) {
+		this(manager, DEFAULT_STEPS_PER_SECOND);
+	}
+
+	public FixedStepClock(final TweenManager manager, float stepsPerSecond) {
+		if (stepsPerSecond <= 0) throw new RuntimeException("Steps per second must be > 0");
+		this.manager = manager;
+		this.objects = manager.getObjects();
+		this.stepsPerSecond = stepsPerSecond;
+		this.stepDuration = 1 / stepsPerSecond;
+		this.managerStepper = new Stepper() {
+			@Override
+			public void step(float delta) {
+				manager.update(delta);
+			}
+		};
+	}
+
+	// -------------------------------------------------------------------------
+	// Public API
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Adds the given frame delta to the clock, and updates the manager by as
+	 * many steps as it holds.
+	 */
+	public void update(float delta) {
+		update(delta, managerStepper);
+	}
+
+	/**
+	 * Same as {@link #update(float)}, making the steps with the given
+	 * stepper, which should update the manager of the clock.
+	 */
+	public void update(float delta, Stepper stepper) {
+		restore();
+
+		accumulator += delta * timeScale;
+		int steps = (int) (Math.abs(accumulator) / stepDuration);
+		if (steps > maxSteps) {
+			totalDroppedSteps += steps - maxSteps;
+			accumulator = accumulator % stepDuration + Math.copySign(maxSteps * stepDuration, accumulator);
+			steps = maxSteps;
+		}
+
+		float step = Math.copySign(stepDuration, accumulator);
+		for (int i=0; i<steps; i++) {
+			if (i == steps-1 && isInterpolated) capture();
+			accumulator -= step;
+			stepper.step(step);
+		}
+
+		stepsCnt = steps;
+		alpha = Math.min(Math.abs(accumulator) / stepDuration, 1);
+		if (isInterpolated && steps > 0) saveCurrent();
+		if (isInterpolated) show();
+	}
+
+	/**
+	 * Sets the speed of the time. Negative values play the tweens backwards.
+	 */
+	public void setTimeScale(float timeScale) {
+		this.timeScale = timeScale;
+	}
+
+	public float getTimeScale() {
+		return timeScale;
+	}
+
+	/**
+	 * Sets the maximum number of steps per update. Default is {@link
+	 * #DEFAULT_MAX_STEPS}.
+	 */
+	public void setMaxSteps(int maxSteps) {
+		if (maxSteps < 1) throw new RuntimeException("Max steps must be >= 1");
+		this.maxSteps = maxSteps;
+	}
+
+	/**
+	 * Enables or disables the interpolation of the shown values. Default is
+	 * enabled.
+	 */
+	public void setInterpolated(boolean isInterpolated) {
+		if (!isInterpolated) restore();
+		this.isInterpolated = isInterpolated;
+		pairsCnt = 0;
+	}
+
+	/**
+	 * Drops the time left in the accumulator, and the interpolation state.
+	 */
+	public void reset() {
+		restore();
+		accumulator = alpha = 0;
+		pairsCnt = 0;
+	}
+
+	public TweenManager getManager() {
+		return manager;
+	}
+
+	public float getStepsPerSecond() {
+		return stepsPerSecond;
+	}
+
+	/**
+	 * Gets the number of steps made by the last update.
+	 */
+	public int getStepsCount() {
+		return stepsCnt;
+	}
+
+	/**
+	 * Gets the number of steps dropped because of the steps cap, since the
+	 * clock was created.
+	 */
+	public int getTotalDroppedSteps() {
+		return totalDroppedSteps;
+	}
+
+	/**
+	 * Gets the position of the shown values between the two last steps,
+	 * from 0 to 1.
+	 */
+	public float getAlpha() {
+		return alpha;
+	}
+
+	// -------------------------------------------------------------------------
+	// Helpers
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Saves the values of every pair animated by the manager, before the
+	 * last step.
+	 */
+	private void capture() {
+		try {
+			attrsLimit = combinedAttrsLimitField.getInt(null);
+		} catch (IllegalAccessException ex) {
+			throw new RuntimeException(ex);
+		}
+		if (buffer.length < attrsLimit) buffer = new float[attrsLimit];
+
+		pairsCnt = 0;
+		for (int i=0, n=objects.size(); i<n; i++) capture(objects.get(i));
+	}
+
+	@SuppressWarnings("unchecked")
+	private void capture(BaseTween<?> obj) {
+		if (obj.isFinished()) return;
+
+		if (obj instanceof Timeline) {
+			List<BaseTween<?>> children = TweenReflection.getChildren((Timeline) obj);
+			for (int i=0, n=children.size(); i<n; i++) capture(children.get(i));
+			return;
+		}
+
+		if (!(obj instanceof Tween)) return;
+		Tween tween = (Tween) obj;
+		TweenAccessor<Object> accessor;
+		try {
+			accessor = (TweenAccessor<Object>) accessorField.get(tween);
+		} catch (IllegalAccessException ex) {
+			throw new RuntimeException(ex);
+		}
+		if (accessor == null || tween.getTarget() == null) return;
+
+		ensureCapacity(pairsCnt + 1);
+		int idx = pairsCnt;
+		targets[idx] = tween.getTarget();
+		accessors[idx] = accessor;
+		types[idx] = tween.getType();
+		counts[idx] = accessor.getValues(targets[idx], types[idx], buffer);
+		System.arraycopy(buffer, 0, previous, idx * attrsLimit, counts[idx]);
+		pairsCnt += 1;
+	}
+
+	private void saveCurrent() {
+		for (int i=0; i<pairsCnt; i++) {
+			accessors[i].getValues(targets[i], types[i], buffer);
+			System.arraycopy(buffer, 0, current, i * attrsLimit, counts[i]);
+		}
+	}
+
+	/**
+	 * Writes the values between the two last steps. They are read back, as
+	 * accessors may not give back exactly what they were set to.
+	 */
+	private void show() {
+		for (int i=0; i<pairsCnt; i++) {
+			int offset = i * attrsLimit;
+			for (int j=0; j<counts[i]; j++) {
+				buffer[j] = previous[offset+j] + (current[offset+j] - previous[offset+j]) * alpha;
+			}
+			accessors[i].setValues(targets[i], types[i], buffer);
+			accessors[i].getValues(targets[i], types[i], buffer);
+			System.arraycopy(buffer, 0, shown, offset, counts[i]);
+		}
+		isShown = pairsCnt > 0;
+	}
+
+	/**
+	 * Writes back the stepped values, where the shown ones were not
+	 * overwritten since. Overwritten pairs are not interpolated anymore.
+	 */
+	private void restore() {
+		if (!isShown) return;
+		isShown = false;
+
+		for (int i=0; i<pairsCnt; i++) {
+			int offset = i * attrsLimit;
+			accessors[i].getValues(targets[i], types[i], buffer);
+
+			boolean isUntouched = true;
+			for (int j=0; j<counts[i] && isUntouched; j++) isUntouched = buffer[j] == shown[offset+j];
+			if (!isUntouched) {
+				counts[i] = 0;
+				continue;
+			}
+
+			System.arraycopy(current, offset, buffer, 0, counts[i]);
+			accessors[i].setValues(targets[i], types[i], buffer);
+		}
+	}
+
+	private void ensureCapacity(int pairs) {
+		if (pairs > targets.length) {
+			int n = Math.max(pairs, targets.length * 2);
+			targets = Arrays.copyOf(targets, n);
+			accessors = Arrays.copyOf(accessors, n);
+			types = Arrays.copyOf(types, n);
+			counts = Arrays.copyOf(counts, n);
+		}
+		if (pairs * attrsLimit > previous.length) {
+			int n = Math.max(pairs * attrsLimit, previous.length * 2);
+			previous = Arrays.copyOf(previous, n);
+			current = Arrays.copyOf(current, n);
+			shown = Arrays.copyOf(shown, n);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static TweenAccessor<Object>[] newAccessors(int n) {
+		return (TweenAccessor<Object>[]) new TweenAccessor<?>[n];
+	}
+}
@@ -0,0 +1,599 @@
+package aurelienribon.managers;
+
+import aurelienribon.timelines.BakedTween;
+import aurelienribon.tweenengine.BaseTween;
+import aurelienribon.tweenengine.Timeline;
+import aurelienribon.tweenengine.Tween;
+import aurelienribon.tweenengine.TweenManager;
+import aurelienribon.tweens.SpringTween;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A TweenManager indexing its objects by target and tween type.
+ * <p>
+ *
+ * TweenManager.killTarget() and containsTarget() ask every managed object,
+ * and timelines ask each of their children. This manager keeps an identity
+ * map from every target to the objects animating it, with one bucket per
+ * tween type. Objects are indexed when added, and dropped from the index
+ * when the update removes them (when they completed or were killed, as the
+ * base class does). Target queries then cost the number of matching
+ * objects:
+ * <pre>
+ * manager.killTarget(sprite);
+ * manager.killTarget(sprite, SpriteAccessor.POS_XY);
+ * manager.containsTarget(sprite);
+ * manager.getObjects(sprite, SpriteAccessor.POS_XY);
+ * </pre>
+ *
+ * As with a TweenManager, killing a target kills every timeline holding a
+ * tween of that target, and killed objects are still seen by
+ * containsTarget() until the next update removes them.
+ * <p>
+ *
+ * Tweens, timelines, {@link BakedTween}s and {@link SpringTween}s are
+ * indexed. Other BaseTween implementations can't tell their targets, and
+ * are asked on every query.
+ * <p>
+ *
+ * With {@link #setOverwrite(boolean) overwrite} enabled, the last tween to
+ * start on a (target, tweenType) wins: when a tween, or a tween of a
+ * timeline, begins (after its delay), the other objects writing the same
+ * pair are stopped instead of fighting over it every frame. Tweens are
+ * killed. Timelines absorb the change: only their conflicting tweens are
+ * muted, and the timeline goes on with the others, or is killed if none is
+ * left. Baked tweens and springs are killed as a whole. Objects which did
+ * not begin yet are left alone, and will win in turn when they begin.
+ * <pre>
+ * manager.setOverwrite(true);
+ * Tween.to(sprite, SpriteAccessor.CPOS_XY, 0.6f).target(x, y).start(manager);
+ * </pre>
+ */
+public class IndexedTweenManager extends TweenManager {
+	private static final Field objectsField;
+	private static final Field isAutoStartEnabledField;
+	private static final Field isAutoRemoveEnabledField;
+	private static final Field isKilledField;
+	private static final Field targetField;
+	private static final Method containsTargetMethod;
+	private static final Method containsTargetTypeMethod;
+
+	static {
+		try {
+			objectsField = TweenManager.class.getDeclaredField("objects");
+			objectsField.setAccessible(true);
+			isAutoStartEnabledField = BaseTween.class.getDeclaredField("isAutoStartEnabled");
+			isAutoStartEnabledField.setAccessible(true);
+			isAutoRemoveEnabledField = BaseTween.class.getDeclaredField("isAutoRemoveEnabled");
+			isAutoRemoveEnabledField.setAccessible(true);
+			isKilledField = BaseTween.class.getDeclaredField("isKilled");
+			isKilledField.setAccessible(true);
+			targetField = Tween.class.getDeclaredField("target");
+			targetField.setAccessible(true);
+			containsTargetMethod = BaseTween.class.getDeclaredMethod("containsTarget", Object.class);
+			containsTargetMethod.setAccessible(true);
+			containsTargetTypeMethod = BaseTween.class.getDeclaredMethod("containsTarget", Object.class, int.class);
+			containsTargetTypeMethod.setAccessible(true);
+		} catch (NoSuchFieldException ex) {
+			throw new RuntimeException(ex);
+		} catch (NoSuchMethodException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	private final List<BaseTween<?>> objects;
+	private final Map<Object, Entry> entries = new IdentityHashMap<Object, Entry>();
+	private final Map<BaseTween<?>, Member> members = new IdentityHashMap<BaseTween<?>, Member>();
+	private final List<BaseTween<?>> opaques = new ArrayList<BaseTween<?>>();
+	private final List<Entry> entriesPool = new ArrayList<Entry>();
+	private final List<Member> membersPool = new ArrayList<Member>();
+	private final List<Member> pendings = new ArrayList<Member>();
+	private final List<BaseTween<?>> conflicts = new ArrayList<BaseTween<?>>();
+	private boolean isOverwriteEnabled;
+
+	@SuppressWarnings("unchecked")
+	public IndexedTweenManager() {
+		try {
+			objects = (List<BaseTween<?>>) objectsField.get(this);
+		} catch (IllegalAccessException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	// -------------------------------------------------------------------------
+	// Public API
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Gets the managed objects animating the given target, in the order they
+	 * were added. The list is a view on the index: copy it before adding or
+	 * removing objects. Objects which can't tell their targets are not
+	 * listed.
+	 */
+	public List<BaseTween<?>> getObjects(Object target) {
+		Entry entry = entries.get(target);
+		return entry != null ? entry.allView : Collections.<BaseTween<?>>emptyList();
+	}
+
+	/**
+	 * Same as {@link #getObjects(Object)}, for the objects animating the
+	 * given tween type of the target.
+	 */
+	public List<BaseTween<?>> getObjects(Object target, int tweenType) {
+		Entry entry = entries.get(target);
+		int bucket = entry != null ? entry.indexOf(tweenType) : -1;
+		return bucket >= 0 ? entry.bucketViews[bucket] : Collections.<BaseTween<?>>emptyList();
+	}
+
+	/**
+	 * Enables or disables the overwrite of conflicting objects. Only the
+	 * objects added while it is enabled overwrite the others. Default is
+	 * disabled.
+	 */
+	public void setOverwrite(boolean isOverwriteEnabled) {
+		this.isOverwriteEnabled = isOverwriteEnabled;
+	}
+
+	public boolean isOverwriteEnabled() {
+		return isOverwriteEnabled;
+	}
+
+	/**
+	 * Gets the number of targets in the index.
+	 */
+	public int getTargetsCount() {
+		return entries.size();
+	}
+
+	// -------------------------------------------------------------------------
+	// TweenManager overrides
+	// -------------------------------------------------------------------------
+
+	@Override
+	public TweenManager add(BaseTween<?> object) {
+		// The base class looks for the object in its whole list
+		if (!members.containsKey(object)) {
+			objects.add(object);
+			index(object);
+		}
+		if (isAutoStartEnabled(object)) object.start();
+		return this;
+	}
+
+	@Override
+	public boolean containsTarget(Object target) {
+		if (entries.containsKey(target)) return true;
+		for (int i=0, n=opaques.size(); i<n; i++) if (containsTarget(opaques.get(i), target)) return true;
+		return false;
+	}
+
+	@Override
+	public boolean containsTarget(Object target, int tweenType) {
+		Entry entry = entries.get(target);
+		if (entry != null && entry.indexOf(tweenType) >= 0) return true;
+		for (int i=0, n=opaques.size(); i<n; i++) if (containsTarget(opaques.get(i), target, tweenType)) return true;
+		return false;
+	}
+
+	@Override
+	public void killTarget(Object target) {
+		Entry entry = entries.get(target);
+		if (entry != null) {
+			for (int i=0, n=entry.all.size(); i<n; i++) entry.all.get(i).kill();
+		}
+		for (int i=0, n=opaques.size(); i<n; i++) {
+			if (containsTarget(opaques.get(i), target)) opaques.get(i).kill();
+		}
+	}
+
+	@Override
+	public void killTarget(Object target, int tweenType) {
+		Entry entry = entries.get(target);
+		int bucket = entry != null ? entry.indexOf(tweenType) : -1;
+		if (bucket >= 0) {
+			List<BaseTween<?>> objs = entry.buckets[bucket];
+			for (int i=0, n=objs.size(); i<n; i++) objs.get(i).kill();
+		}
+		for (int i=0, n=opaques.size(); i<n; i++) {
+			if (containsTarget(opaques.get(i), target, tweenType)) opaques.get(i).kill();
+		}
+	}
+
+	@Override
+	public void update(float delta) {
+		// Objects which began and finished in the last update, like
+		// Tween.set(), still overwrite the others before being removed. This
+		// also catches the objects updated by subclasses after this update.
+		if (!pendings.isEmpty()) overwrite();
+
+		// Finished objects are freed to their pool by the base class, and may
+		// come back as new tweens: forget them first
+		for (int i=0, n=objects.size(); i<n; i++) {
+			BaseTween<?> obj = objects.get(i);
+			if (obj.isFinished() && isAutoRemoveEnabled(obj)) onRemove(obj);
+		}
+
+		super.update(delta);
+		if (!pendings.isEmpty()) overwrite();
+	}
+
+	/**
+	 * Called by update() for every object it is about to remove, before the
+	 * base class frees it to its pool. Subclasses keeping a state per object
+	 * drop it here.
+	 */
+	protected void onRemove(BaseTween<?> obj) {
+		unindex(obj);
+	}
+
+	// -------------------------------------------------------------------------
+	// Helpers
+	// -------------------------------------------------------------------------
+
+	private void index(BaseTween<?> obj) {
+		Member member = membersPool.isEmpty() ? new Member() : membersPool.remove(membersPool.size()-1);
+		members.put(obj, member);
+
+		if (obj instanceof Tween || obj instanceof Timeline || obj instanceof BakedTween || obj instanceof SpringTween) {
+			collect(obj, member);
+			for (int i=0; i<member.pairsCnt; i++) add(obj, member.targets[i], member.types[i], member.isFirstOfTarget(i));
+		} else {
+			member.isOpaque = true;
+			opaques.add(obj);
+		}
+
+		if (isOverwriteEnabled && !member.isOpaque) {
+			collectWriters(obj, member.writers);
+			member.object = obj;
+			if (!member.writers.isEmpty()) pendings.add(member);
+		}
+	}
+
+	private void unindex(BaseTween<?> obj) {
+		Member member = members.remove(obj);
+		if (member == null) return;
+		if (!member.writers.isEmpty()) pendings.remove(member);
+
+		if (member.isOpaque) {
+			opaques.remove(obj);
+		} else {
+			for (int i=0; i<member.pairsCnt; i++) remove(obj, member.targets[i], member.types[i], member.isFirstOfTarget(i));
+		}
+
+		member.clear();
+		membersPool.add(member);
+	}
+
+	/**
+	 * Collects the distinct (target, tweenType) pairs of an object.
+	 */
+	private static void collect(BaseTween<?> obj, Member member) {
+		if (obj instanceof Tween) {
+			Tween tween = (Tween) obj;
+			if (tween.getTarget() != null) member.add(tween.getTarget(), tween.getType());
+
+		} else if (obj instanceof Timeline) {
+			List<BaseTween<?>> children = TweenReflection.getChildren((Timeline) obj);
+			for (int i=0, n=children.size(); i<n; i++) collect(children.get(i), member);
+
+		} else if (obj instanceof BakedTween) {
+			aurelienribon.timelines.BakedTimeline timeline = ((BakedTween) obj).getTimeline();
+			for (int i=0, n=timeline.getTracksCount(); i<n; i++) {
+				Object target = timeline.getTrackTarget(i);
+				if (target != null) member.add(target, timeline.getTrackType(i));
+			}
+
+		} else if (obj instanceof SpringTween) {
+			SpringTween spring = (SpringTween) obj;
+			member.add(spring.getTarget(), spring.getType());
+		}
+	}
+
+	private void add(BaseTween<?> obj, Object target, int tweenType, boolean isFirstOfTarget) {
+		Entry entry = entries.get(target);
+		if (entry == null) {
+			entry = entriesPool.isEmpty() ? new Entry() : entriesPool.remove(entriesPool.size()-1);
+			entries.put(target, entry);
+		}
+
+		if (isFirstOfTarget) entry.all.add(obj);
+		entry.bucket(tweenType).add(obj);
+	}
+
+	private void remove(BaseTween<?> obj, Object target, int tweenType, boolean isFirstOfTarget) {
+		Entry entry = entries.get(target);
+		if (entry == null) return;
+
+		if (isFirstOfTarget) entry.all.remove(obj);
+		int bucket = entry.indexOf(tweenType);
+		if (bucket >= 0) entry.remove(bucket, obj);
+
+		if (entry.all.isEmpty()) {
+			entries.remove(target);
+			entry.clear();
+			entriesPool.add(entry);
+		}
+	}
+
+	/**
+	 * Lets the pending objects which began since the last update overwrite
+	 * the others. The newest go first, so that they win over older objects
+	 * beginning in the same update.
+	 */
+	private void overwrite() {
+		for (int i=pendings.size()-1; i>=0; i--) {
+			Member member = pendings.get(i);
+			List<BaseTween<?>> writers = member.writers;
+
+			for (int j=writers.size()-1; j>=0; j--) {
+				BaseTween<?> writer = writers.get(j);
+				if (!writer.isInitialized()) continue;
+				writers.remove(j);
+
+				if (writer instanceof Tween) {
+					Tween tween = (Tween) writer;
+					if (tween.getTarget() != null) overwrite(member.object, tween.getTarget(), tween.getType());
+				} else if (writer instanceof SpringTween) {
+					SpringTween spring = (SpringTween) writer;
+					overwrite(member.object, spring.getTarget(), spring.getType());
+				} else {
+					aurelienribon.timelines.BakedTimeline timeline = ((BakedTween) writer).getTimeline();
+					for (int k=0, n=timeline.getTracksCount(); k<n; k++) {
+						Object target = timeline.getTrackTarget(k);
+						if (target != null) overwrite(member.object, target, timeline.getTrackType(k));
+					}
+				}
+			}
+
+			if (writers.isEmpty()) pendings.remove(i);
+		}
+	}
+
+	/**
+	 * Stops the objects, other than the given one, writing the given pair.
+	 */
+	private void overwrite(BaseTween<?> winner, Object target, int tweenType) {
+		Entry entry = entries.get(target);
+		int bucket = entry != null ? entry.indexOf(tweenType) : -1;
+		if (bucket < 0) return;
+
+		// Absorbing changes the buckets
+		conflicts.addAll(entry.buckets[bucket]);
+		for (int i=0, n=conflicts.size(); i<n; i++) {
+			BaseTween<?> obj = conflicts.get(i);
+			if (obj == winner || obj.isFinished()) continue;
+
+			if (obj instanceof Timeline) {
+				if (absorb((Timeline) obj, target, tweenType)) reindex(obj);
+			} else if (obj.isInitialized()) {
+				obj.kill();
+			}
+		}
+		conflicts.clear();
+	}
+
+	/**
+	 * Mutes the tweens of a timeline writing the given pair, if they began.
+	 * Their target is removed, so they don't write it anymore, even when the
+	 * timeline forces its start or end values between repetitions.
+	 */
+	private static boolean absorb(Timeline timeline, Object target, int tweenType) {
+		boolean isChanged = false;
+		List<BaseTween<?>> children = TweenReflection.getChildren(timeline);
+		for (int i=0, n=children.size(); i<n; i++) {
+			BaseTween<?> child = children.get(i);
+			if (child instanceof Timeline) {
+				isChanged |= absorb((Timeline) child, target, tweenType);
+			} else if (child instanceof Tween) {
+				Tween tween = (Tween) child;
+				if (tween.getTarget() == target && tween.getType() == tweenType && tween.isInitialized() && !isKilled(tween)) {
+					mute(tween);
+					isChanged = true;
+				}
+			}
+		}
+		return isChanged;
+	}
+
+	/**
+	 * Collects the pairs of an absorbing timeline again, and kills it if it
+	 * has nothing left to write.
+	 */
+	private void reindex(BaseTween<?> obj) {
+		Member member = members.get(obj);
+		for (int i=0; i<member.pairsCnt; i++) remove(obj, member.targets[i], member.types[i], member.isFirstOfTarget(i));
+		member.clearPairs();
+		collect(obj, member);
+		for (int i=0; i<member.pairsCnt; i++) add(obj, member.targets[i], member.types[i], member.isFirstOfTarget(i));
+		if (member.pairsCnt == 0) obj.kill();
+	}
+
+	/**
+	 * Collects the tweens, baked tweens and springs, which will write
+	 * something when they begin.
+	 */
+	private static void collectWriters(BaseTween<?> obj, List<BaseTween<?>> writers) {
+		if (obj instanceof Tween) {
+			if (((Tween) obj).getTarget() != null) writers.add(obj);
+
+		} else if (obj instanceof Timeline) {
+			List<BaseTween<?>> children = TweenReflection.getChildren((Timeline) obj);
+			for (int i=0, n=children.size(); i<n; i++) collectWriters(children.get(i), writers);
+
+		} else if (obj instanceof BakedTween || obj instanceof SpringTween) {
+			writers.add(obj);
+		}
+	}
+
+	private static boolean isAutoStartEnabled(BaseTween<?> obj) {
+		try {
+			return isAutoStartEnabledField.getBoolean(obj);
+		} catch (IllegalAccessException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	private static boolean isAutoRemoveEnabled(BaseTween<?> obj) {
+		try {
+			return isAutoRemoveEnabledField.getBoolean(obj);
+		} catch (IllegalAccessException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	private static boolean isKilled(BaseTween<?> obj) {
+		try {
+			return isKilledField.getBoolean(obj);
+		} catch (IllegalAccessException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	/**
+	 * Removes the target of a tween. The pool clears it anyway when the tween
+	 * is freed.
+	 */
+	private static void mute(Tween tween) {
+		try {
+			targetField.set(tween, null);
+		} catch (IllegalAccessException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	private static boolean containsTarget(BaseTween<?> obj, Object target) {
+		try {
+			return (Boolean) containsTargetMethod.invoke(obj, target);
+		} catch (IllegalAccessException ex) {
+			throw new RuntimeException(ex);
+		} catch (InvocationTargetException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	private static boolean containsTarget(BaseTween<?> obj, Object target, int tweenType) {
+		try {
+			return (Boolean) containsTargetTypeMethod.invoke(obj, target, tweenType);
+		} catch (IllegalAccessException ex) {
+			throw new RuntimeException(ex);
+		} catch (InvocationTargetException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	/**
+	 * The objects animating a target, all together and by tween type.
+	 */
+	private static class Entry {
+		private final List<BaseTween<?>> all = new ArrayList<BaseTween<?>>(4);
+		private final List<BaseTween<?>> allView = Collections.unmodifiableList(all);
+		private int[] types = new int[2];
+		private List<BaseTween<?>>[] buckets = newBuckets(2);
+		private List<BaseTween<?>>[] bucketViews = newBuckets(2);
+		private int bucketsCnt;
+
+		public int indexOf(int tweenType) {
+			for (int i=0; i<bucketsCnt; i++) if (types[i] == tweenType) return i;
+			return -1;
+		}
+
+		public List<BaseTween<?>> bucket(int tweenType) {
+			int idx = indexOf(tweenType);
+			if (idx >= 0) return buckets[idx];
+
+			if (bucketsCnt == types.length) {
+				types = Arrays.copyOf(types, bucketsCnt * 2);
+				buckets = Arrays.copyOf(buckets, bucketsCnt * 2);
+				bucketViews = Arrays.copyOf(bucketViews, bucketsCnt * 2);
+			}
+			if (buckets[bucketsCnt] == null) {
+				buckets[bucketsCnt] = new ArrayList<BaseTween<?>>(2);
+				bucketViews[bucketsCnt] = Collections.unmodifiableList(buckets[bucketsCnt]);
+			}
+			types[bucketsCnt] = tweenType;
+			return buckets[bucketsCnt++];
+		}
+
+		/**
+		 * Removes an object from a bucket, moving the last bucket in its
+		 * place if it gets empty.
+		 */
+		public void remove(int bucket, BaseTween<?> obj) {
+			List<BaseTween<?>> objs = buckets[bucket];
+			objs.remove(obj);
+			if (!objs.isEmpty()) return;
+
+			int last = bucketsCnt-1;
+			List<BaseTween<?>> objsView = bucketViews[bucket];
+			types[bucket] = types[last];
+			buckets[bucket] = buckets[last];
+			bucketViews[bucket] = bucketViews[last];
+			buckets[last] = objs;
+			bucketViews[last] = objsView;
+			bucketsCnt = last;
+		}
+
+		public void clear() {
+			all.clear();
+			for (int i=0; i<bucketsCnt; i++) buckets[i].clear();
+			bucketsCnt = 0;
+		}
+
+		@SuppressWarnings("unchecked")
+		private static List<BaseTween<?>>[] newBuckets(int n) {
+			return (List<BaseTween<?>>[]) new List<?>[n];
+		}
+	}
+
+	/**
+	 * The distinct (target, tweenType) pairs of a managed object, and the
+	 * writers of the object which did not overwrite the others yet.
+	 */
+	private static class Member {
+		private final List<BaseTween<?>> writers = new ArrayList<BaseTween<?>>(4);
+		private BaseTween<?> object;
+		private Object[] targets = new Object[4];
+		private int[] types = new int[4];
+		private int pairsCnt;
+		private boolean isOpaque;
+
+		public void add(Object target, int tweenType) {
+			for (int i=0; i<pairsCnt; i++) if (targets[i] == target && types[i] == tweenType) return;
+			if (pairsCnt == targets.length) {
+				targets = Arrays.copyOf(targets, pairsCnt * 2);
+				types = Arrays.copyOf(types, pairsCnt * 2);
+			}
+			targets[pairsCnt] = target;
+			types[pairsCnt] = tweenType;
+			pairsCnt += 1;
+		}
+
+		/**
+		 * Tells if the given pair is the first one of its target.
+		 */
+		public boolean isFirstOfTarget(int pair) {
+			for (int i=0; i<pair; i++) if (targets[i] == targets[pair]) return false;
+			return true;
+		}
+
+		public void clearPairs() {
+			Arrays.fill(targets, 0, pairsCnt, null);
+			pairsCnt = 0;
+		}
+
+		public void clear() {
+			clearPairs();
+			writers.clear();
+			object = null;
+			isOpaque = false;
+		}
+	}
+}
@@ -0,0 +1,429 @@
+package aurelienribon.managers;
+
+import aurelienribon.timelines.BakedTimeline;
+import aurelienribon.timelines.BakedTween;
+import aurelienribon.tweenengine.BaseTween;
+import aurelienribon.tweenengine.Timeline;
+import aurelienribon.tweenengine.Tween;
+import aurelienribon.tweenengine.TweenCallback;
+import aurelienribon.tweenengine.TweenManager;
+import aurelienribon.tweens.SpringTween;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A TweenManager able to update its tweens on several threads.
+ * <p>
+ *
+ * The managed objects are split into chunks keyed by their target, so that
+ * two workers never write the same object. The targets of an object are
+ * looked up once, when it is added, and the chunks are only split again
+ * when objects are added or removed. Timelines and baked tweens animating
+ * several targets can't be keyed: they are updated on the calling thread
+ * once the workers are done, along with every object sharing one of their
+ * targets, so that each target still sees its writes in the order of a
+ * sequential update.
+ * <p>
+ *
+ * BaseTween implementations other than tweens, timelines, baked tweens and
+ * springs can't tell their targets, and are also updated after the workers:
+ * if they write the target of another object, they now write it last.
+ * <p>
+ *
+ * Callbacks fired during the parallel phase are queued, and replayed on the
+ * calling thread once every chunk is updated, in the same order as a regular
+ * sequential update would have fired them. Callbacks are captured when the
+ * object is added, by start(manager): set them before, as the builder chains
+ * do. A callback set later is not queued, and is fired on a worker thread.
+ * <p>
+ *
+ * Managers holding less than {@link #setParallelThreshold(int) threshold}
+ * objects are updated sequentially, as the fork/join overhead would cost
+ * more than it saves.
+ */
+public class ParallelTweenManager extends TweenManager implements SelfUpdatingManager {
+	private static final Field callbackField;
+
+	static {
+		try {
+			callbackField = BaseTween.class.getDeclaredField("callback");
+			callbackField.setAccessible(true);
+		} catch (NoSuchFieldException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	private final List<BaseTween<?>> objects = getObjects();
+	private Map<BaseTween<?>, Object> keys = new IdentityHashMap<BaseTween<?>, Object>();
+	private Map<BaseTween<?>, Object> liveKeys = new IdentityHashMap<BaseTween<?>, Object>();
+	private final Map<Object, Object> serialTargets = new IdentityHashMap<Object, Object>();
+	private final List<Object> targetsBuffer = new ArrayList<Object>();
+	private Object[] splitKeys = new Object[64];
+	private final ThreadLocal<Chunk> currentChunk = new ThreadLocal<Chunk>();
+	private final Chunk serialChunk = new Chunk();
+	private ForkJoinPool pool;
+	private Chunk[] chunks = new Chunk[0];
+	private int parallelism;
+	private int parallelThreshold = 1000;
+	private boolean isPaused;
+	private boolean isReverse;
+	private boolean isSplitValid;
+
+	private final RecursiveAction rootTask = new RecursiveAction() {
+		@Override
+		protected void compute() {
+			invokeAll(chunks);
+		}
+	};
+
+	public ParallelTweenManager() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	public ParallelTweenManager(int parallelism) {
+		super.pause(); // see SelfUpdatingManager
+		setParallelism(parallelism);
+	}
+
+	// -------------------------------------------------------------------------
+	// Public API
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Sets the number of worker threads. A value of 1 disables the parallel
+	 * update mode.
+	 */
+	public void setParallelism(int parallelism) {
+		if (parallelism < 1) throw new RuntimeException("Parallelism must be >= 1");
+		if (parallelism == this.parallelism) return;
+
+		dispose();
+		this.parallelism = parallelism;
+		this.chunks = new Chunk[parallelism > 1 ? parallelism * 4 : 0];
+		for (int i=0; i<chunks.length; i++) chunks[i] = new Chunk();
+		this.isSplitValid = false;
+	}
+
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * Sets the minimum number of managed objects required to update them in
+	 * parallel. Default is 1000.
+	 */
+	public void setParallelThreshold(int parallelThreshold) {
+		this.parallelThreshold = parallelThreshold;
+	}
+
+	/**
+	 * Stops the worker threads. They are restarted on the next parallel
+	 * update, if any.
+	 */
+	public void dispose() {
+		if (pool != null) pool.shutdown();
+		pool = null;
+	}
+
+	// -------------------------------------------------------------------------
+	// TweenManager overrides
+	// -------------------------------------------------------------------------
+
+	@Override
+	public void pause() {
+		isPaused = true;
+	}
+
+	@Override
+	public void resume() {
+		isPaused = false;
+	}
+
+	@Override
+	public boolean isPaused() {
+		return isPaused;
+	}
+
+	@Override
+	public TweenManager add(BaseTween<?> object) {
+		wrapCallbacks(object);
+		if (!(object instanceof Tween)) keys.put(object, findKey(object));
+		isSplitValid = false;
+		return super.add(object);
+	}
+
+	@Override
+	public void update(float delta) {
+		int oldSize = objects.size();
+		super.update(delta);
+		if (objects.size() != oldSize) {
+			isSplitValid = false;
+			if (!keys.isEmpty()) dropRemovedKeys();
+		}
+		if (isPaused) return;
+
+		int size = objects.size();
+		boolean isReverse = delta < 0;
+
+		if (chunks.length == 0 || size < parallelThreshold) {
+			if (!isReverse) for (int i=0; i<size; i++) objects.get(i).update(delta);
+			else for (int i=size-1; i>=0; i--) objects.get(i).update(delta);
+			return;
+		}
+
+		// The objects only change by add() and by the removals of the base
+		// class: until then, the chunks are kept
+		if (!isSplitValid || isReverse != this.isReverse) {
+			this.isReverse = isReverse;
+			split(size);
+			isSplitValid = true;
+		} else {
+			for (int i=0; i<chunks.length; i++) chunks[i].rewind();
+			serialChunk.rewind();
+		}
+
+		for (int i=0; i<chunks.length; i++) chunks[i].delta = delta;
+		serialChunk.delta = delta;
+
+		if (pool == null) pool = new ForkJoinPool(parallelism);
+		rootTask.reinitialize();
+		pool.invoke(rootTask);
+		serialChunk.compute();
+
+		replay();
+	}
+
+	// -------------------------------------------------------------------------
+	// Helpers
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Distributes the objects by target, keeping them in update order inside
+	 * every chunk. The objects sharing a target with a multi-target object go
+	 * to the serial chunk with it.
+	 */
+	private void split(int size) {
+		for (int i=0; i<chunks.length; i++) chunks[i].clear();
+		serialChunk.clear();
+		if (!serialTargets.isEmpty()) serialTargets.clear();
+		if (splitKeys.length < size) splitKeys = new Object[Math.max(size, splitKeys.length * 2)];
+
+		for (int i=0; i<size; i++) {
+			BaseTween<?> obj = objects.get(i);
+			Object key = obj instanceof Tween ? ((Tween) obj).getTarget() : keys.get(obj);
+			splitKeys[i] = key;
+			if (key instanceof Targets) {
+				Object[] targets = ((Targets) key).targets;
+				for (int j=0; j<targets.length; j++) serialTargets.put(targets[j], targets[j]);
+			}
+		}
+
+		for (int i=0; i<size; i++) {
+			int idx = isReverse ? size-1-i : i;
+			Object key = splitKeys[idx];
+
+			if (key == OPAQUE || key instanceof Targets || (key != null && serialTargets.containsKey(key))) {
+				serialChunk.add(idx);
+			} else {
+				int hash = key != null ? System.identityHashCode(key) * 0x9E3779B9 : 0;
+				chunks[(hash >>> 1) % chunks.length].add(idx);
+			}
+		}
+
+		Arrays.fill(splitKeys, 0, size, null);
+	}
+
+	/**
+	 * Keeps the keys of the managed objects only.
+	 */
+	private void dropRemovedKeys() {
+		for (int i=0, n=objects.size(); i<n; i++) {
+			BaseTween<?> obj = objects.get(i);
+			if (!(obj instanceof Tween)) liveKeys.put(obj, keys.get(obj));
+		}
+
+		Map<BaseTween<?>, Object> tmp = keys;
+		keys = liveKeys;
+		liveKeys = tmp;
+		liveKeys.clear();
+	}
+
+	private static final Object OPAQUE = new Object();
+
+	/**
+	 * Gets the key of an object: its only target, null if it has none, its
+	 * Targets if it has several, or OPAQUE if they are not known.
+	 */
+	private Object findKey(BaseTween<?> obj) {
+		if (obj instanceof Tween) return ((Tween) obj).getTarget();
+		if (obj instanceof SpringTween) return ((SpringTween) obj).getTarget();
+		if (!(obj instanceof Timeline) && !(obj instanceof BakedTween)) return OPAQUE;
+
+		targetsBuffer.clear();
+		collectTargets(obj, targetsBuffer);
+		Object key = targetsBuffer.isEmpty() ? null
+			: targetsBuffer.size() == 1 ? targetsBuffer.get(0)
+			: new Targets(targetsBuffer.toArray());
+		targetsBuffer.clear();
+		return key;
+	}
+
+	private static void collectTargets(BaseTween<?> obj, List<Object> targets) {
+		if (obj instanceof Tween) {
+			addTarget(targets, ((Tween) obj).getTarget());
+
+		} else if (obj instanceof Timeline) {
+			List<BaseTween<?>> children = TweenReflection.getChildren((Timeline) obj);
+			for (int i=0, n=children.size(); i<n; i++) collectTargets(children.get(i), targets);
+
+		} else if (obj instanceof BakedTween) {
+			BakedTimeline timeline = ((BakedTween) obj).getTimeline();
+			for (int i=0, n=timeline.getTracksCount(); i<n; i++) addTarget(targets, timeline.getTrackTarget(i));
+		}
+	}
+
+	private static void addTarget(List<Object> targets, Object target) {
+		if (target == null) return;
+		for (int i=0, n=targets.size(); i<n; i++) if (targets.get(i) == target) return;
+		targets.add(target);
+	}
+
+	/**
+	 * Fires the queued callbacks, merging the chunk queues by object index.
+	 */
+	private void replay() {
+		while (true) {
+			Chunk next = serialChunk.hasEvent() ? serialChunk : null;
+			for (int i=0; i<chunks.length; i++) {
+				Chunk c = chunks[i];
+				if (c.hasEvent() && (next == null || c.isBefore(next))) next = c;
+			}
+			if (next == null) break;
+			next.fireNextEvent();
+		}
+	}
+
+	private void wrapCallbacks(BaseTween<?> object) {
+		try {
+			TweenCallback callback = (TweenCallback) callbackField.get(object);
+			if (callback != null && !(callback instanceof QueuedCallback)) {
+				callbackField.set(object, new QueuedCallback(callback));
+			}
+		} catch (IllegalAccessException ex) {
+			throw new RuntimeException(ex);
+		}
+
+		if (object instanceof Timeline) {
+			List<BaseTween<?>> children = TweenReflection.getChildren((Timeline) object);
+			for (int i=0, n=children.size(); i<n; i++) wrapCallbacks(children.get(i));
+		}
+	}
+
+	private static class Targets {
+		private final Object[] targets;
+
+		public Targets(Object[] targets) {
+			this.targets = targets;
+		}
+	}
+
+	private class QueuedCallback implements TweenCallback {
+		private final TweenCallback callback;
+
+		public QueuedCallback(TweenCallback callback) {
+			this.callback = callback;
+		}
+
+		@Override
+		public void onEvent(int type, BaseTween<?> source) {
+			Chunk chunk = currentChunk.get();
+			if (chunk != null) chunk.queue(callback, type, source);
+			else callback.onEvent(type, source);
+		}
+	}
+
+	private class Chunk extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private int[] indices = new int[64];
+		private int size;
+		private float delta;
+
+		private int[] eventIndices = new int[16];
+		private int[] eventTypes = new int[16];
+		private TweenCallback[] eventCallbacks = new TweenCallback[16];
+		private BaseTween<?>[] eventSources = new BaseTween<?>[16];
+		private int eventsCnt;
+		private int eventsPos;
+		private int currentIndex;
+
+		private void clear() {
+			size = 0;
+			rewind();
+		}
+
+		/**
+		 * Drops the queued events, keeping the objects.
+		 */
+		private void rewind() {
+			Arrays.fill(eventCallbacks, 0, eventsCnt, null);
+			Arrays.fill(eventSources, 0, eventsCnt, null);
+			eventsCnt = eventsPos = 0;
+			reinitialize();
+		}
+
+		private void add(int index) {
+			if (size == indices.length) indices = Arrays.copyOf(indices, size * 2);
+			indices[size++] = index;
+		}
+
+		@Override
+		protected void compute() {
+			currentChunk.set(this);
+			try {
+				for (int i=0; i<size; i++) {
+					currentIndex = indices[i];
+					objects.get(currentIndex).update(delta);
+				}
+			} finally {
+				currentChunk.set(null);
+			}
+		}
+
+		private void queue(TweenCallback callback, int type, BaseTween<?> source) {
+			if (eventsCnt == eventIndices.length) {
+				int n = eventsCnt * 2;
+				eventIndices = Arrays.copyOf(eventIndices, n);
+				eventTypes = Arrays.copyOf(eventTypes, n);
+				eventCallbacks = Arrays.copyOf(eventCallbacks, n);
+				eventSources = Arrays.copyOf(eventSources, n);
+			}
+			eventIndices[eventsCnt] = currentIndex;
+			eventTypes[eventsCnt] = type;
+			eventCallbacks[eventsCnt] = callback;
+			eventSources[eventsCnt] = source;
+			eventsCnt += 1;
+		}
+
+		private boolean hasEvent() {
+			return eventsPos < eventsCnt;
+		}
+
+		private boolean isBefore(Chunk other) {
+			int idx = eventIndices[eventsPos];
+			int otherIdx = other.eventIndices[other.eventsPos];
+			return isReverse ? idx > otherIdx : idx < otherIdx;
+		}
+
+		private void fireNextEvent() {
+			int i = eventsPos++;
+			eventCallbacks[i].onEvent(eventTypes[i], eventSources[i]);
+		}
+	}
+}
@@ -0,0 +1,19 @@
+package aurelienribon.managers;
+
+/**
+ * A TweenManager which updates its objects itself.
+ * <p>
+ *
+ * TweenManager.update() removes the finished objects, then updates the
+ * others unless the manager is paused, and the two steps can't be overridden
+ * apart. These managers keep the base class paused for good, from their
+ * constructor, so that its update only removes the finished objects, and
+ * keep their own pause state, set by pause() and resume(). The pause state
+ * of the base class always reads paused: ask {@link #isPaused()} instead.
+ */
+public interface SelfUpdatingManager {
+	/**
+	 * Tells if the manager is paused, by pause().
+	 */
+	public boolean isPaused();
+}
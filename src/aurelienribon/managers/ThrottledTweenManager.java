@@ -0,0 +1,192 @@
+package aurelienribon.managers;
+
+import aurelienribon.tweenengine.BaseTween;
+import aurelienribon.tweenengine.Timeline;
+import aurelienribon.tweenengine.Tween;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A TweenManager updating less often the tweens whose target is off-screen.
+ * <p>
+ *
+ * Once the target of a tween has been off-screen for {@link
+ * #setHiddenDelay(float) hiddenDelay} seconds, the tween is only updated
+ * every {@link #setHiddenPeriod(int) hiddenPeriod} frames, with the sum of
+ * the deltas it skipped: it ends up at the same time as if it was updated
+ * every frame, with coarser steps nobody sees. As soon as its target is
+ * on-screen again, the tween catches up on the skipped time and goes back
+ * to a per-frame update. The callbacks of a throttled tween may fire up to
+ * hiddenPeriod-1 frames late.
+ * <p>
+ *
+ * Visibility is given by a {@link Visibility}, usually the culler of the
+ * screen. Without one, every tween is updated every frame, as with a
+ * TweenManager. A timeline is off-screen when none of its tweens has a target
+ * on-screen. Tweens without target, and other BaseTween implementations, are
+ * always updated every frame.
+ * <p>
+ *
+ * The tweens are indexed by target, as with an IndexedTweenManager.
+ */
+public class ThrottledTweenManager extends IndexedTweenManager implements SelfUpdatingManager {
+	public interface Visibility {
+		/**
+		 * Tells if the given target is seen on the screen.
+		 */
+		public boolean isOnScreen(Object target);
+	}
+
+	private final List<BaseTween<?>> objects = getObjects();
+	private final Map<BaseTween<?>, Throttle> throttles = new IdentityHashMap<BaseTween<?>, Throttle>();
+	private final List<Throttle> throttlesPool = new ArrayList<Throttle>();
+	private Visibility visibility;
+	private float hiddenDelay = 0.5f;
+	private int hiddenPeriod = 4;
+	private int frame;
+	private int throttledCnt;
+	private boolean isPaused;
+
+	public ThrottledTweenManager() {
+		super.pause(); // see SelfUpdatingManager
+	}
+
+	// -------------------------------------------------------------------------
+	// Public API
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Sets the visibility of the targets. Null disables the throttling.
+	 */
+	public void setVisibility(Visibility visibility) {
+		this.visibility = visibility;
+	}
+
+	/**
+	 * Sets how long a target needs to be off-screen before its tweens are
+	 * throttled, in seconds. Default is 0.5.
+	 */
+	public void setHiddenDelay(float hiddenDelay) {
+		this.hiddenDelay = hiddenDelay;
+	}
+
+	/**
+	 * Sets the number of frames between two updates of a throttled tween.
+	 * Default is 4.
+	 */
+	public void setHiddenPeriod(int hiddenPeriod) {
+		if (hiddenPeriod < 1) throw new RuntimeException("Hidden period must be >= 1");
+		this.hiddenPeriod = hiddenPeriod;
+	}
+
+	/**
+	 * Gets the number of tweens which skipped the last update.
+	 */
+	public int getThrottledCount() {
+		return throttledCnt;
+	}
+
+	// -------------------------------------------------------------------------
+	// TweenManager overrides
+	// -------------------------------------------------------------------------
+
+	@Override
+	public void pause() {
+		isPaused = true;
+	}
+
+	@Override
+	public void resume() {
+		isPaused = false;
+	}
+
+	@Override
+	public boolean isPaused() {
+		return isPaused;
+	}
+
+	@Override
+	public void update(float delta) {
+		super.update(delta);
+		if (isPaused) return;
+
+		frame += 1;
+		throttledCnt = 0;
+
+		int size = objects.size();
+		if (delta >= 0) for (int i=0; i<size; i++) update(objects.get(i), delta);
+		else for (int i=size-1; i>=0; i--) update(objects.get(i), delta);
+	}
+
+	@Override
+	protected void onRemove(BaseTween<?> obj) {
+		super.onRemove(obj);
+		release(obj);
+	}
+
+	// -------------------------------------------------------------------------
+	// Helpers
+	// -------------------------------------------------------------------------
+
+	private void update(BaseTween<?> obj, float delta) {
+		if (visibility == null || isOnScreen(obj)) {
+			Throttle throttle = throttles.get(obj);
+			if (throttle != null) {
+				delta += throttle.skippedDelta;
+				release(obj);
+			}
+			obj.update(delta);
+			return;
+		}
+
+		Throttle throttle = throttles.get(obj);
+		if (throttle == null) {
+			throttle = throttlesPool.isEmpty() ? new Throttle() : throttlesPool.remove(throttlesPool.size()-1);
+			throttle.phase = throttles.size(); // spreads the throttled updates over the period
+			throttles.put(obj, throttle);
+		}
+
+		throttle.hiddenTime += Math.abs(delta);
+		throttle.skippedDelta += delta;
+
+		if (throttle.hiddenTime < hiddenDelay || (frame + throttle.phase) % hiddenPeriod == 0) {
+			obj.update(throttle.skippedDelta);
+			throttle.skippedDelta = 0;
+		} else {
+			throttledCnt += 1;
+		}
+	}
+
+	private boolean isOnScreen(BaseTween<?> obj) {
+		if (obj instanceof Tween) {
+			Object target = ((Tween) obj).getTarget();
+			return target == null || visibility.isOnScreen(target);
+		}
+
+		if (obj instanceof Timeline) {
+			List<BaseTween<?>> children = TweenReflection.getChildren((Timeline) obj);
+			if (children.isEmpty()) return true;
+			for (int i=0, n=children.size(); i<n; i++) {
+				if (isOnScreen(children.get(i))) return true;
+			}
+			return false;
+		}
+
+		return true;
+	}
+
+	private void release(BaseTween<?> obj) {
+		Throttle throttle = throttles.remove(obj);
+		if (throttle == null) return;
+		throttle.hiddenTime = throttle.skippedDelta = 0;
+		throttlesPool.add(throttle);
+	}
+
+	private static class Throttle {
+		private float hiddenTime;
+		private float skippedDelta;
+		private int phase;
+	}
+}
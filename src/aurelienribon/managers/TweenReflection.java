@@ -0,0 +1,36 @@
+package aurelienribon.managers;
+
+import aurelienribon.tweenengine.BaseTween;
+import aurelienribon.tweenengine.Timeline;
+import java.lang.reflect.Field;
+import java.util.List;
+
+/**
+ * Access to the engine state the managers need but the engine doesn't
+ * expose.
+ */
+class TweenReflection {
+	private static final Field childrenField;
+
+	static {
+		try {
+			childrenField = Timeline.class.getDeclaredField("children");
+			childrenField.setAccessible(true);
+		} catch (NoSuchFieldException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	/**
+	 * Gets the children of a timeline. Timeline.getChildren() fails on
+	 * nested timelines, and allocates a new view on every call.
+	 */
+	@SuppressWarnings("unchecked")
+	static List<BaseTween<?>> getChildren(Timeline timeline) {
+		try {
+			return (List<BaseTween<?>>) childrenField.get(timeline);
+		} catch (IllegalAccessException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+}
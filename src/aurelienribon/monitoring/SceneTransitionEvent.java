@@ -0,0 +1,39 @@
+package aurelienribon.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A scene of the demo was initialized or disposed. The event duration is
+ * the time spent in the transition.
+ */
+@Name("aurelienribon.SceneTransition")
+@Label("Scene Transition")
+@Category({"Tween Engine", "Scenes"})
+@StackTrace(false)
+public class SceneTransitionEvent extends jdk.jfr.Event {
+	public static final String INITIALIZE = "initialize";
+	public static final String DISPOSE = "dispose";
+
+	@Label("Scene")
+	public String scene;
+
+	@Label("Transition")
+	@Description("initialize or dispose")
+	public String transition;
+
+	/**
+	 * Ends the event, and commits it if it is recorded.
+	 */
+	public void commit(String scene, String transition) {
+		end();
+		if (shouldCommit()) {
+			this.scene = scene;
+			this.transition = transition;
+			commit();
+		}
+	}
+}
@@ -0,0 +1,37 @@
+package aurelienribon.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A TweenCallback was called. The event duration is the time spent in the
+ * callback.
+ */
+@Name("aurelienribon.TweenCallback")
+@Label("Tween Callback")
+@Category({"Tween Engine", "Callbacks"})
+@StackTrace(false)
+public class TweenCallbackEvent extends jdk.jfr.Event {
+	@Label("Callback Type")
+	@Description("BEGIN, START, END, COMPLETE or their BACK_ variants")
+	public String type;
+
+	@Label("Callback Class")
+	public Class<?> callbackClass;
+
+	@Label("Source Type")
+	public Class<?> sourceType;
+
+	@Label("Step")
+	public int step;
+
+	@Label("Current Time")
+	@Description("Local time of the source, in seconds")
+	public float currentTime;
+
+	@Label("User Data")
+	public String userData;
+}
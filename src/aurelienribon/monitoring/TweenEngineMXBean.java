@@ -0,0 +1,31 @@
+package aurelienribon.monitoring;
+
+/**
+ * Global settings and pool sizes of the engine. Registered as
+ * "aurelienribon.tweenengine:type=TweenEngine" by {@link TweenMonitors}.
+ * <p>
+ *
+ * The combined attributes limit is read-only: it sizes the value buffers of
+ * every tween when it is created, and the buffered managers rely on all the
+ * tweens having the same size. The waypoints limit can only be lowered, see
+ * {@link TweenEngineMonitor}.
+ */
+public interface TweenEngineMXBean {
+	public float getTimeScale();
+	public void setTimeScale(float timeScale);
+	public int getWaypointsLimit();
+	public void setWaypointsLimit(int limit);
+	public int getCombinedAttributesLimit();
+
+	public int getTweenPoolSize();
+	public int getTweenPoolMinSize();
+	public int getTweenPoolPrewarmSize();
+	public void setTweenPoolPrewarmSize(int size);
+
+	public int getTimelinePoolSize();
+	public int getTimelinePoolMinSize();
+	public int getTimelinePoolPrewarmSize();
+	public void setTimelinePoolPrewarmSize(int size);
+
+	public void resetStatistics();
+}
@@ -0,0 +1,178 @@
+package aurelienribon.monitoring;
+
+import aurelienribon.tweenengine.Timeline;
+import aurelienribon.tweenengine.Tween;
+import java.lang.reflect.Field;
+
+/**
+ * Exposes the global settings of the engine through JMX, with a global time
+ * scale applied by every {@link TweenManagerMonitor}, and watches the Tween
+ * and Timeline pools. Get the instance with {@link TweenMonitors#getEngine()}.
+ * <p>
+ *
+ * The engine is not thread-safe: changes asked through JMX are applied by
+ * the next TweenManagerMonitor update, on the thread updating the tweens.
+ * <p>
+ *
+ * A tween sizes its waypoints array once, when it is created, so the pooled
+ * and running tweens keep the limit they were built with. The waypoints
+ * limit can thus be lowered, but never raised above the lowest limit seen
+ * since the monitor was created: such a request is rejected with an error.
+ * Limits set from the code must be set before the first tween is created.
+ * <p>
+ *
+ * The pools are watched through their public sizes, read at the beginning
+ * of every TweenManagerMonitor update. The smallest size seen since the last
+ * reset tells how close the pool came to running dry: at 0, tweens were
+ * likely created during the frame, and the prewarm size should be raised.
+ */
+public class TweenEngineMonitor implements TweenEngineMXBean {
+	private static final Field waypointsLimitField;
+	private static final Field combinedAttrsLimitField;
+
+	static {
+		try {
+			waypointsLimitField = Tween.class.getDeclaredField("waypointsLimit");
+			waypointsLimitField.setAccessible(true);
+			combinedAttrsLimitField = Tween.class.getDeclaredField("combinedAttrsLimit");
+			combinedAttrsLimitField.setAccessible(true);
+		} catch (NoSuchFieldException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	private volatile float timeScale = 1;
+	private volatile int tweenPoolMinSize = -1;
+	private volatile int timelinePoolMinSize = -1;
+	private volatile int tweenPoolPrewarmSize;
+	private volatile int timelinePoolPrewarmSize;
+	private volatile int waypointsLimitRequest = -1;
+	private int waypointsLimitCeiling;
+	private volatile boolean isPrewarmRequested;
+	private volatile boolean isResetRequested;
+
+	TweenEngineMonitor() {
+		waypointsLimitCeiling = readInt(waypointsLimitField);
+	}
+
+	// -------------------------------------------------------------------------
+	// TweenEngineMXBean
+	// -------------------------------------------------------------------------
+
+	@Override public float getTimeScale() {return timeScale;}
+	@Override public void setTimeScale(float timeScale) {this.timeScale = timeScale;}
+
+	@Override
+	public int getWaypointsLimit() {
+		return waypointsLimitRequest >= 0 ? waypointsLimitRequest : readInt(waypointsLimitField);
+	}
+
+	@Override
+	public synchronized void setWaypointsLimit(int limit) {
+		int ceiling = Math.min(waypointsLimitCeiling, readInt(waypointsLimitField));
+		if (limit < 0) throw new RuntimeException("The limit cannot be negative");
+		if (limit > ceiling) throw new RuntimeException("The limit cannot be raised above " + ceiling + ", the existing tweens were built with it");
+		waypointsLimitCeiling = limit;
+		waypointsLimitRequest = limit;
+	}
+
+	@Override
+	public int getCombinedAttributesLimit() {
+		return readInt(combinedAttrsLimitField);
+	}
+
+	@Override public int getTweenPoolSize() {return Tween.getPoolSize();}
+	@Override public int getTweenPoolPrewarmSize() {return tweenPoolPrewarmSize;}
+
+	@Override
+	public int getTweenPoolMinSize() {
+		int size = tweenPoolMinSize;
+		return size >= 0 ? size : Tween.getPoolSize();
+	}
+
+	@Override
+	public void setTweenPoolPrewarmSize(int size) {
+		tweenPoolPrewarmSize = size;
+		isPrewarmRequested = true;
+	}
+
+	@Override public int getTimelinePoolSize() {return Timeline.getPoolSize();}
+	@Override public int getTimelinePoolPrewarmSize() {return timelinePoolPrewarmSize;}
+
+	@Override
+	public int getTimelinePoolMinSize() {
+		int size = timelinePoolMinSize;
+		return size >= 0 ? size : Timeline.getPoolSize();
+	}
+
+	@Override
+	public void setTimelinePoolPrewarmSize(int size) {
+		timelinePoolPrewarmSize = size;
+		isPrewarmRequested = true;
+	}
+
+	@Override
+	public void resetStatistics() {
+		isResetRequested = true;
+	}
+
+	// -------------------------------------------------------------------------
+	// Helpers
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Applies the changes asked through JMX, and samples the pools. Must be
+	 * called by the thread updating the tweens.
+	 */
+	void applyRequests() {
+		if (waypointsLimitRequest >= 0) {
+			Tween.setWaypointsLimit(waypointsLimitRequest);
+			waypointsLimitRequest = -1;
+		}
+
+		if (isPrewarmRequested) {
+			isPrewarmRequested = false;
+			prewarm();
+		}
+
+		if (isResetRequested) {
+			isResetRequested = false;
+			tweenPoolMinSize = timelinePoolMinSize = -1;
+		}
+
+		int tweensCnt = Tween.getPoolSize();
+		int timelinesCnt = Timeline.getPoolSize();
+		if (tweenPoolMinSize < 0 || tweensCnt < tweenPoolMinSize) tweenPoolMinSize = tweensCnt;
+		if (timelinePoolMinSize < 0 || timelinesCnt < timelinePoolMinSize) timelinePoolMinSize = timelinesCnt;
+	}
+
+	/**
+	 * Fills the pools up to their prewarm sizes, by taking objects out of
+	 * them (creating the missing ones) and freeing them all.
+	 */
+	private void prewarm() {
+		int tweensCnt = tweenPoolPrewarmSize - Tween.getPoolSize();
+		if (tweensCnt > 0) {
+			Tween.ensurePoolCapacity(tweenPoolPrewarmSize);
+			Tween[] tweens = new Tween[tweensCnt + Tween.getPoolSize()];
+			for (int i=0; i<tweens.length; i++) tweens[i] = Tween.mark();
+			for (int i=0; i<tweens.length; i++) tweens[i].free();
+		}
+
+		int timelinesCnt = timelinePoolPrewarmSize - Timeline.getPoolSize();
+		if (timelinesCnt > 0) {
+			Timeline.ensurePoolCapacity(timelinePoolPrewarmSize);
+			Timeline[] timelines = new Timeline[timelinesCnt + Timeline.getPoolSize()];
+			for (int i=0; i<timelines.length; i++) timelines[i] = Timeline.createSequence();
+			for (int i=0; i<timelines.length; i++) timelines[i].free();
+		}
+	}
+
+	private static int readInt(Field field) {
+		try {
+			return field.getInt(null);
+		} catch (IllegalAccessException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+}
@@ -0,0 +1,216 @@
+package aurelienribon.monitoring;
+
+import aurelienribon.tweenengine.BaseTween;
+import aurelienribon.tweenengine.Timeline;
+import aurelienribon.tweenengine.Tween;
+import aurelienribon.tweenengine.TweenCallback;
+import aurelienribon.tweenengine.TweenManager;
+import java.lang.reflect.Field;
+import java.util.List;
+
+/**
+ * Emits the Java Flight Recorder events of the engine. Record them with:
+ * <pre>
+ * java -XX:StartFlightRecording=filename=demo.jfr ...
+ * </pre>
+ *
+ * Update the TweenManagers through {@link #update(TweenManager, float,
+ * String)} to get one {@link TweenManagerUpdateEvent} per update, and one
+ * {@link TweenLifecycleEvent} per tween or timeline started, completed or
+ * killed in the manager. While callback events are recorded, the callbacks
+ * of the objects starting in the manager are wrapped so that each call
+ * emits a {@link TweenCallbackEvent}. Callbacks of objects which are not in
+ * a manager can be wrapped with {@link #trace(TweenCallback)}.
+ * <p>
+ *
+ * When recording is off, the events are never committed and the JIT removes
+ * their allocation: update() costs the manager update and nothing else (see
+ * TweenEventsBenchmark).
+ * <p>
+ *
+ * Objects are seen starting on the first update following their addition
+ * (they have not moved yet), and completing or being killed on the update
+ * removing them from the manager, one frame after they ended.
+ */
+public class TweenEvents {
+	private static final Field objectsField;
+	private static final Field childrenField;
+	private static final Field callbackField;
+	private static final Field isKilledField;
+	private static final Field isAutoRemoveEnabledField;
+
+	static {
+		try {
+			objectsField = TweenManager.class.getDeclaredField("objects");
+			objectsField.setAccessible(true);
+			childrenField = Timeline.class.getDeclaredField("children");
+			childrenField.setAccessible(true);
+			callbackField = BaseTween.class.getDeclaredField("callback");
+			callbackField.setAccessible(true);
+			isKilledField = BaseTween.class.getDeclaredField("isKilled");
+			isKilledField.setAccessible(true);
+			isAutoRemoveEnabledField = BaseTween.class.getDeclaredField("isAutoRemoveEnabled");
+			isAutoRemoveEnabledField.setAccessible(true);
+		} catch (NoSuchFieldException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	/**
+	 * Updates the given manager, emitting the events of this update.
+	 */
+	public static void update(TweenManager manager, float delta, String name) {
+		TweenLifecycleEvent lifecycle = new TweenLifecycleEvent();
+		TweenCallbackEvent callback = new TweenCallbackEvent();
+		if (lifecycle.isEnabled() || callback.isEnabled()) {
+			scan(manager, delta, name, lifecycle.isEnabled(), callback.isEnabled());
+		}
+
+		TweenManagerUpdateEvent event = new TweenManagerUpdateEvent();
+		event.begin();
+		manager.update(delta);
+		event.end();
+
+		if (event.shouldCommit()) {
+			event.manager = name;
+			event.delta = delta;
+			event.objectsCount = manager.size();
+			event.commit();
+		}
+	}
+
+	/**
+	 * Wraps the given callback so that each call emits a
+	 * {@link TweenCallbackEvent}. The callback can be null, to only trace the
+	 * calls.
+	 */
+	public static TweenCallback trace(TweenCallback callback) {
+		return new Tracer(callback);
+	}
+
+	/**
+	 * Gets the objects of a manager, without the copy of getObjects().
+	 */
+	@SuppressWarnings("unchecked")
+	static List<BaseTween<?>> getObjects(TweenManager manager) {
+		try {
+			return (List<BaseTween<?>>) objectsField.get(manager);
+		} catch (IllegalAccessException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	/**
+	 * Gets the children of a timeline, without the copy of getChildren().
+	 */
+	@SuppressWarnings("unchecked")
+	static List<BaseTween<?>> getChildren(Timeline timeline) {
+		try {
+			return (List<BaseTween<?>>) childrenField.get(timeline);
+		} catch (IllegalAccessException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	public static String getCallbackTypeName(int type) {
+		switch (type) {
+			case TweenCallback.BEGIN: return "BEGIN";
+			case TweenCallback.START: return "START";
+			case TweenCallback.END: return "END";
+			case TweenCallback.COMPLETE: return "COMPLETE";
+			case TweenCallback.BACK_BEGIN: return "BACK_BEGIN";
+			case TweenCallback.BACK_START: return "BACK_START";
+			case TweenCallback.BACK_END: return "BACK_END";
+			case TweenCallback.BACK_COMPLETE: return "BACK_COMPLETE";
+			default: return "???";
+		}
+	}
+
+	// -------------------------------------------------------------------------
+	// Helpers
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Looks for the objects the coming update will remove (finished ones) and
+	 * for the objects it will update for the first time. Delays count in the
+	 * current time, so an object which was updated by a non-zero delta is
+	 * never seen as new again.
+	 */
+	@SuppressWarnings("unchecked")
+	private static void scan(TweenManager manager, float delta, String name, boolean isLifecycleEnabled, boolean isCallbackEnabled) {
+		try {
+			List<BaseTween<?>> objects = (List<BaseTween<?>>) objectsField.get(manager);
+			for (int i=0, n=objects.size(); i<n; i++) {
+				BaseTween<?> obj = objects.get(i);
+
+				if (obj.isFinished()) {
+					if (isLifecycleEnabled && isAutoRemoveEnabledField.getBoolean(obj)) {
+						emitLifecycle(obj, isKilledField.getBoolean(obj) ? TweenLifecycleEvent.KILL : TweenLifecycleEvent.COMPLETE, name);
+					}
+				} else if (delta != 0 && obj.getStep() == -2 && obj.getCurrentTime() == 0) {
+					if (isLifecycleEnabled) emitLifecycle(obj, TweenLifecycleEvent.START, name);
+					if (isCallbackEnabled) wrapCallbacks(obj);
+				}
+			}
+		} catch (IllegalAccessException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static void emitLifecycle(BaseTween<?> obj, String transition, String name) throws IllegalAccessException {
+		TweenLifecycleEvent event = new TweenLifecycleEvent();
+		event.transition = transition;
+		event.manager = name;
+		event.objectType = obj.getClass();
+		event.fullDuration = obj.getFullDuration();
+		event.userData = obj.getUserData() != null ? String.valueOf(obj.getUserData()) : null;
+
+		if (obj instanceof Tween) {
+			Tween tween = (Tween) obj;
+			event.targetType = tween.getTargetClass();
+			event.tweenType = tween.getType();
+		} else if (obj instanceof Timeline) {
+			event.childrenCount = ((List<BaseTween<?>>) childrenField.get(obj)).size();
+		}
+
+		event.commit();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static void wrapCallbacks(BaseTween<?> obj) throws IllegalAccessException {
+		TweenCallback callback = (TweenCallback) callbackField.get(obj);
+		if (callback != null && !(callback instanceof Tracer)) callbackField.set(obj, new Tracer(callback));
+
+		if (obj instanceof Timeline) {
+			List<BaseTween<?>> children = (List<BaseTween<?>>) childrenField.get(obj);
+			for (int i=0, n=children.size(); i<n; i++) wrapCallbacks(children.get(i));
+		}
+	}
+
+	private static class Tracer implements TweenCallback {
+		private final TweenCallback callback;
+
+		public Tracer(TweenCallback callback) {
+			this.callback = callback;
+		}
+
+		@Override
+		public void onEvent(int type, BaseTween<?> source) {
+			TweenCallbackEvent event = new TweenCallbackEvent();
+			event.begin();
+			if (callback != null) callback.onEvent(type, source);
+			event.end();
+
+			if (event.shouldCommit()) {
+				event.type = getCallbackTypeName(type);
+				event.callbackClass = callback != null ? callback.getClass() : null;
+				event.sourceType = source.getClass();
+				event.step = source.getStep();
+				event.currentTime = source.getCurrentTime();
+				event.userData = source.getUserData() != null ? String.valueOf(source.getUserData()) : null;
+				event.commit();
+			}
+		}
+	}
+}
@@ -0,0 +1,50 @@
+package aurelienribon.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A tween or timeline was started, completed or killed in a TweenManager.
+ */
+@Name("aurelienribon.TweenLifecycle")
+@Label("Tween Lifecycle")
+@Category({"Tween Engine", "Tweens"})
+@StackTrace(false)
+public class TweenLifecycleEvent extends jdk.jfr.Event {
+	public static final String START = "start";
+	public static final String COMPLETE = "complete";
+	public static final String KILL = "kill";
+
+	@Label("Transition")
+	@Description("start, complete or kill")
+	public String transition;
+
+	@Label("Manager")
+	public String manager;
+
+	@Label("Object Type")
+	@Description("Tween, Timeline or another BaseTween class")
+	public Class<?> objectType;
+
+	@Label("Target Type")
+	@Description("Class of the target, for tweens")
+	public Class<?> targetType;
+
+	@Label("Tween Type")
+	@Description("Accessor tween type, for tweens")
+	public int tweenType;
+
+	@Label("Children")
+	@Description("Number of children, for timelines")
+	public int childrenCount;
+
+	@Label("Full Duration")
+	@Description("Delay and repetitions included, in seconds")
+	public float fullDuration;
+
+	@Label("User Data")
+	public String userData;
+}
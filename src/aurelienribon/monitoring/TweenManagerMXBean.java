@@ -0,0 +1,25 @@
+package aurelienribon.monitoring;
+
+/**
+ * Live state of one TweenManager. Registered as
+ * "aurelienribon.tweenengine:type=TweenManager,name=..." by
+ * {@link TweenMonitors}.
+ */
+public interface TweenManagerMXBean {
+	public String getName();
+
+	public int getObjectsCount();
+	public int getRunningCount();
+	public int getPausedCount();
+	public int getTweensCount();
+	public int getTimelinesCount();
+
+	public long getUpdatesCount();
+	public double getTotalUpdateTimeMillis();
+	public double getAverageUpdateTimeMicros();
+
+	public boolean isPaused();
+	public void setPaused(boolean isPaused);
+	public void killAll();
+	public void resetStatistics();
+}
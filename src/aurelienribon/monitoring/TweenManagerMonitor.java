@@ -0,0 +1,175 @@
+package aurelienribon.monitoring;
+
+import aurelienribon.managers.SelfUpdatingManager;
+import aurelienribon.tweenengine.BaseTween;
+import aurelienribon.tweenengine.Timeline;
+import aurelienribon.tweenengine.TweenManager;
+import java.lang.reflect.Field;
+import java.util.List;
+
+/**
+ * Updates a TweenManager and exposes its state through JMX. Get instances
+ * with {@link TweenMonitors#get(TweenManager, String)}.
+ * <p>
+ *
+ * The manager is only touched by the thread calling {@link #update(float)}:
+ * its counts are read every {@link #SNAPSHOT_PERIOD} nanoseconds during an
+ * update, and the changes asked through JMX are applied at the beginning of
+ * the next update.
+ */
+public class TweenManagerMonitor implements TweenManagerMXBean {
+	public static final long SNAPSHOT_PERIOD = 250000000L;
+
+	private static final Field isPausedField;
+
+	static {
+		try {
+			isPausedField = TweenManager.class.getDeclaredField("isPaused");
+			isPausedField.setAccessible(true);
+		} catch (NoSuchFieldException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	private final TweenManager manager;
+	private final String name;
+	private final TweenEngineMonitor engine;
+
+	private volatile int objectsCnt;
+	private volatile int runningCnt;
+	private volatile int pausedCnt;
+	private volatile int tweensCnt;
+	private volatile int timelinesCnt;
+	private volatile boolean isPaused;
+	private volatile long updatesCnt;
+	private volatile long updateNanos;
+	private long lastSnapshot;
+
+	private volatile int pauseRequest;
+	private volatile boolean isKillRequested;
+
+	TweenManagerMonitor(TweenManager manager, String name, TweenEngineMonitor engine) {
+		this.manager = manager;
+		this.name = name;
+		this.engine = engine;
+	}
+
+	/**
+	 * Updates the manager by delta times the global time scale.
+	 */
+	public void update(float delta) {
+		engine.applyRequests();
+		applyRequests();
+
+		long t = System.nanoTime();
+		TweenEvents.update(manager, delta * engine.getTimeScale(), name);
+		long now = System.nanoTime();
+		updateNanos += now - t;
+		updatesCnt += 1;
+
+		if (now - lastSnapshot >= SNAPSHOT_PERIOD) {
+			lastSnapshot = now;
+			snapshot();
+		}
+	}
+
+	public TweenManager getManager() {
+		return manager;
+	}
+
+	// -------------------------------------------------------------------------
+	// TweenManagerMXBean
+	// -------------------------------------------------------------------------
+
+	@Override public String getName() {return name;}
+	@Override public int getObjectsCount() {return objectsCnt;}
+	@Override public int getRunningCount() {return runningCnt;}
+	@Override public int getPausedCount() {return pausedCnt;}
+	@Override public int getTweensCount() {return tweensCnt;}
+	@Override public int getTimelinesCount() {return timelinesCnt;}
+	@Override public long getUpdatesCount() {return updatesCnt;}
+	@Override public double getTotalUpdateTimeMillis() {return updateNanos / 1000000.0;}
+	@Override public boolean isPaused() {return isPaused;}
+
+	@Override
+	public double getAverageUpdateTimeMicros() {
+		long cnt = updatesCnt;
+		return cnt > 0 ? updateNanos / 1000.0 / cnt : 0;
+	}
+
+	@Override
+	public void setPaused(boolean isPaused) {
+		pauseRequest = isPaused ? 1 : -1;
+	}
+
+	@Override
+	public void killAll() {
+		isKillRequested = true;
+	}
+
+	@Override
+	public void resetStatistics() {
+		updatesCnt = 0;
+		updateNanos = 0;
+	}
+
+	// -------------------------------------------------------------------------
+	// Helpers
+	// -------------------------------------------------------------------------
+
+	private void applyRequests() {
+		int request = pauseRequest;
+		if (request != 0) {
+			pauseRequest = 0;
+			if (request > 0) manager.pause();
+			else manager.resume();
+		}
+
+		if (isKillRequested) {
+			isKillRequested = false;
+			manager.killAll();
+		}
+	}
+
+	private void snapshot() {
+		List<BaseTween<?>> objects = TweenEvents.getObjects(manager);
+		int running = 0, paused = 0;
+		for (int i=0, n=objects.size(); i<n; i++) {
+			BaseTween<?> obj = objects.get(i);
+			if (obj.isPaused()) paused += 1;
+			else if (!obj.isFinished()) running += 1;
+		}
+
+		objectsCnt = objects.size();
+		runningCnt = running;
+		pausedCnt = paused;
+		tweensCnt = countTweens(objects);
+		timelinesCnt = countTimelines(objects);
+
+		try {
+			isPaused = manager instanceof SelfUpdatingManager ? ((SelfUpdatingManager) manager).isPaused()
+				: isPausedField.getBoolean(manager);
+		} catch (IllegalAccessException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	static int countTweens(List<BaseTween<?>> objects) {
+		int cnt = 0;
+		for (int i=0, n=objects.size(); i<n; i++) {
+			BaseTween<?> obj = objects.get(i);
+			if (obj instanceof Timeline) cnt += countTweens(TweenEvents.getChildren((Timeline) obj));
+			else cnt += 1;
+		}
+		return cnt;
+	}
+
+	static int countTimelines(List<BaseTween<?>> objects) {
+		int cnt = 0;
+		for (int i=0, n=objects.size(); i<n; i++) {
+			BaseTween<?> obj = objects.get(i);
+			if (obj instanceof Timeline) cnt += 1 + countTimelines(TweenEvents.getChildren((Timeline) obj));
+		}
+		return cnt;
+	}
+}
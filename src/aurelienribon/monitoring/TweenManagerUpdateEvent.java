@@ -0,0 +1,25 @@
+package aurelienribon.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A TweenManager was updated. The event duration is the time spent in
+ * update().
+ */
+@Name("aurelienribon.TweenManagerUpdate")
+@Label("Tween Manager Update")
+@Category({"Tween Engine", "Managers"})
+@StackTrace(false)
+public class TweenManagerUpdateEvent extends jdk.jfr.Event {
+	@Label("Manager")
+	public String manager;
+
+	@Label("Delta")
+	public float delta;
+
+	@Label("Objects")
+	public int objectsCount;
+}
@@ -0,0 +1,82 @@
+package aurelienribon.monitoring;
+
+import aurelienribon.tweenengine.TweenManager;
+import java.lang.management.ManagementFactory;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Registry of the JMX MBeans of the engine: one {@link TweenEngineMonitor}
+ * and one {@link TweenManagerMonitor} per TweenManager, registered in the
+ * platform MBean server under the "aurelienribon.tweenengine" domain. They
+ * can be watched and tuned from any JMX client (jconsole, JDK Mission
+ * Control...).
+ * <p>
+ *
+ * Must be used by the thread updating the tweens.
+ */
+public class TweenMonitors {
+	public static final String DOMAIN = "aurelienribon.tweenengine";
+
+	private static final Map<TweenManager, TweenManagerMonitor> monitors = new IdentityHashMap<TweenManager, TweenManagerMonitor>();
+	private static TweenEngineMonitor engine;
+
+	/**
+	 * Gets the engine monitor, registering it on first call.
+	 */
+	public static TweenEngineMonitor getEngine() {
+		if (engine == null) {
+			engine = new TweenEngineMonitor();
+			register(engine, DOMAIN + ":type=TweenEngine");
+		}
+		return engine;
+	}
+
+	/**
+	 * Gets the monitor of the given manager, registering it on first call.
+	 * If the name is already used by another manager, a number is appended.
+	 */
+	public static TweenManagerMonitor get(TweenManager manager, String name) {
+		TweenManagerMonitor monitor = monitors.get(manager);
+		if (monitor != null) return monitor;
+
+		for (int i=1; ; i++) {
+			String uniqueName = i == 1 ? name : name + " #" + i;
+			monitor = new TweenManagerMonitor(manager, uniqueName, getEngine());
+			if (register(monitor, DOMAIN + ":type=TweenManager,name=" + ObjectName.quote(uniqueName))) break;
+		}
+
+		monitors.put(manager, monitor);
+		return monitor;
+	}
+
+	/**
+	 * Unregisters the monitor of the given manager, if any.
+	 */
+	public static void remove(TweenManager manager) {
+		TweenManagerMonitor monitor = monitors.remove(manager);
+		if (monitor == null) return;
+
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			server.unregisterMBean(new ObjectName(DOMAIN + ":type=TweenManager,name=" + ObjectName.quote(monitor.getName())));
+		} catch (JMException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	private static boolean register(Object mbean, String name) {
+		try {
+			ManagementFactory.getPlatformMBeanServer().registerMBean(mbean, new ObjectName(name));
+			return true;
+		} catch (InstanceAlreadyExistsException ex) {
+			return false;
+		} catch (JMException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+}
@@ -0,0 +1,473 @@
+package aurelienribon.timelines;
+
+import aurelienribon.tweenengine.BaseTween;
+import aurelienribon.tweenengine.Timeline;
+import aurelienribon.tweenengine.Tween;
+import aurelienribon.tweenengine.TweenAccessor;
+import aurelienribon.tweenengine.TweenManager;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A timeline sampled into flat keyframe tracks, one per animated (target,
+ * tweenType) pair. Playing it back costs an index computation and a lerp per
+ * track, written through the same TweenAccessor as the original tweens,
+ * whatever the depth of the original tree or the cost of its equations.
+ * <p>
+ *
+ * Baking runs the timeline from the current state of its targets, which are
+ * restored afterwards. Relative targets are resolved at that time, so the
+ * baked tracks only replay correctly from the same initial state. Nested
+ * callbacks and Tween.call() objects are not baked: set a callback on the
+ * tween returned by {@link #createTween()} instead.
+ * <pre>
+ * BakedTimeline baked = BakedTimeline.bake(Timeline.createSequence()...., 60);
+ * baked.createTween().setCallback(callback).start(tweenManager);
+ * </pre>
+ *
+ * Baked timelines can be saved and loaded. A loaded timeline needs to be
+ * bound to the targets of the timeline it was baked from before being played,
+ * see {@link #bind(Timeline)}. Tracks constant at the beginning or at the end
+ * of the timeline are only stored once.
+ */
+public class BakedTimeline {
+	private static final int MAGIC = 0x424B544C; // "BKTL"
+	private static final int VERSION = 1;
+
+	private static final Field callbackField;
+	private static final Field childrenField;
+
+	static {
+		try {
+			callbackField = BaseTween.class.getDeclaredField("callback");
+			callbackField.setAccessible(true);
+			childrenField = Timeline.class.getDeclaredField("children");
+			childrenField.setAccessible(true);
+		} catch (NoSuchFieldException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	/**
+	 * Bakes the given timeline, sampling it at the given rate (in samples
+	 * per second). The timeline must not be started: it is run in a private
+	 * manager, then freed.
+	 */
+	public static BakedTimeline bake(Timeline timeline, float rate) {
+		if (timeline.isStarted()) throw new RuntimeException("The timeline is already started");
+		if (rate <= 0) throw new RuntimeException("Rate must be > 0");
+
+		timeline.build();
+		float duration = timeline.getFullDuration();
+		if (duration < 0) throw new RuntimeException("Can't bake an infinitely repeated timeline");
+
+		Layout layout = new Layout(timeline);
+		int tracksCnt = layout.types.size();
+		int samplesCnt = Math.max((int) Math.ceil(duration * rate), 1) + 1;
+
+		float[][] initials = new float[tracksCnt][];
+		float[][] samples = new float[tracksCnt][];
+		for (int i=0; i<tracksCnt; i++) {
+			initials[i] = layout.getValues(i);
+			samples[i] = new float[samplesCnt * initials[i].length];
+		}
+
+		long signature = layout.signature(initials);
+		removeCallbacks(timeline);
+
+		TweenManager manager = new TweenManager();
+		timeline.start(manager);
+
+		float step = duration / (samplesCnt - 1);
+		for (int s=0; s<samplesCnt; s++) {
+			// the last step overshoots, so that the timeline ends for sure
+			manager.update(s == 0 ? 0 : s == samplesCnt-1 ? step + 1 : step);
+			for (int i=0; i<tracksCnt; i++) {
+				float[] values = layout.getValues(i);
+				System.arraycopy(values, 0, samples[i], s * values.length, values.length);
+			}
+		}
+
+		manager.killAll();
+		manager.update(0);
+
+		Track[] tracks = new Track[tracksCnt];
+		for (int i=0; i<tracksCnt; i++) {
+			layout.setValues(i, initials[i]);
+			tracks[i] = Track.compact(layout.targetIdxs.get(i), layout.types.get(i), initials[i].length, samples[i], samplesCnt);
+		}
+
+		BakedTimeline baked = new BakedTimeline(signature, rate, duration, samplesCnt, layout.targets.size(), tracks);
+		baked.setBindings(layout);
+		return baked;
+	}
+
+	/**
+	 * Loads a timeline saved with {@link #save(OutputStream)}. It needs to be
+	 * bound before being played.
+	 */
+	public static BakedTimeline load(InputStream input) throws IOException {
+		DataInputStream in = new DataInputStream(input);
+		if (in.readInt() != MAGIC) throw new IOException("Not a baked timeline");
+		if (in.readByte() != VERSION) throw new IOException("Unsupported baked timeline version");
+
+		long signature = in.readLong();
+		float rate = in.readFloat();
+		float duration = in.readFloat();
+		int samplesCnt = in.readInt();
+		int targetsCnt = in.readUnsignedShort();
+		int tracksCnt = in.readUnsignedShort();
+
+		Track[] tracks = new Track[tracksCnt];
+		for (int i=0; i<tracksCnt; i++) {
+			int targetIdx = in.readUnsignedShort();
+			int type = in.readInt();
+			int valuesCnt = in.readUnsignedByte();
+			int first = in.readInt();
+			int last = in.readInt();
+			float[] values = new float[(last - first + 1) * valuesCnt];
+			for (int j=0; j<values.length; j++) values[j] = in.readFloat();
+			tracks[i] = new Track(targetIdx, type, valuesCnt, first, last, values);
+		}
+		return new BakedTimeline(signature, rate, duration, samplesCnt, targetsCnt, tracks);
+	}
+
+	// -------------------------------------------------------------------------
+
+	private final long signature;
+	private final float rate;
+	private final float duration;
+	private final int samplesCnt;
+	private final int targetsCnt;
+	private final Track[] tracks;
+
+	private Object[] targets;
+	private Object[] trackTargets;
+	private TweenAccessor<Object>[] trackAccessors;
+	private float[] buffer;
+
+	private BakedTimeline(long signature, float rate, float duration, int samplesCnt, int targetsCnt, Track[] tracks) {
+		this.signature = signature;
+		this.rate = rate;
+		this.duration = duration;
+		this.samplesCnt = samplesCnt;
+		this.targetsCnt = targetsCnt;
+		this.tracks = tracks;
+	}
+
+	/**
+	 * Gets a copy of this baked timeline playing on the targets of the given
+	 * timeline, or null if the given timeline is not built like the one this
+	 * was baked from (different tweens, or different initial values). The
+	 * given timeline is not started nor freed. Tracks are shared between the
+	 * copies.
+	 */
+	public BakedTimeline bind(Timeline timeline) {
+		timeline.build();
+		Layout layout = new Layout(timeline);
+		if (layout.targets.size() != targetsCnt || layout.types.size() != tracks.length) return null;
+
+		float[][] initials = new float[tracks.length][];
+		for (int i=0; i<tracks.length; i++) {
+			Track track = tracks[i];
+			if (layout.targetIdxs.get(i) != track.targetIdx || layout.types.get(i) != track.type) return null;
+			initials[i] = layout.getValues(i);
+		}
+		if (layout.signature(initials) != signature) return null;
+
+		BakedTimeline bound = new BakedTimeline(signature, rate, duration, samplesCnt, targetsCnt, tracks);
+		bound.setBindings(layout);
+		return bound;
+	}
+
+	/**
+	 * Saves the tracks of this timeline, without its targets.
+	 */
+	public void save(OutputStream output) throws IOException {
+		DataOutputStream out = new DataOutputStream(output);
+		out.writeInt(MAGIC);
+		out.writeByte(VERSION);
+		out.writeLong(signature);
+		out.writeFloat(rate);
+		out.writeFloat(duration);
+		out.writeInt(samplesCnt);
+		out.writeShort(targetsCnt);
+		out.writeShort(tracks.length);
+
+		for (Track track : tracks) {
+			out.writeShort(track.targetIdx);
+			out.writeInt(track.type);
+			out.writeByte(track.valuesCnt);
+			out.writeInt(track.first);
+			out.writeInt(track.last);
+			for (int j=0; j<track.values.length; j++) out.writeFloat(track.values[j]);
+		}
+		out.flush();
+	}
+
+	/**
+	 * Creates a new tween playing this timeline. It can be delayed, repeated,
+	 * paused or killed like any other tween. Tweens are not pooled.
+	 */
+	public BakedTween createTween() {
+		if (targets == null) throw new RuntimeException("The timeline needs to be bound to its targets first");
+		return new BakedTween(this);
+	}
+
+	/**
+	 * Sets every track to its value at the given time.
+	 */
+	public void apply(float time) {
+		if (targets == null) throw new RuntimeException("The timeline needs to be bound to its targets first");
+
+		boolean isEnd = time >= duration;
+		float x = isEnd ? 0 : Math.max(time, 0) * (samplesCnt - 1) / duration;
+		int i = (int) x;
+		float f = x - i;
+
+		for (int t=0; t<tracks.length; t++) {
+			Track track = tracks[t];
+			float[] values = track.values;
+			int cnt = track.valuesCnt;
+
+			if (isEnd || i >= track.last) {
+				System.arraycopy(values, (track.last - track.first) * cnt, buffer, 0, cnt);
+			} else if (i < track.first) {
+				System.arraycopy(values, 0, buffer, 0, cnt);
+			} else {
+				int base = (i - track.first) * cnt;
+				for (int k=0; k<cnt; k++) {
+					float v = values[base + k];
+					buffer[k] = v + f * (values[base + cnt + k] - v);
+				}
+			}
+
+			trackAccessors[t].setValues(trackTargets[t], track.type, buffer);
+		}
+	}
+
+	public float getDuration() {
+		return duration;
+	}
+
+	public float getRate() {
+		return rate;
+	}
+
+	/**
+	 * Gets the targets of the bound timeline, in the order they appear in
+	 * the original tree, or null if this timeline is not bound.
+	 */
+	public Object[] getTargets() {
+		return targets;
+	}
+
+	public int getTracksCount() {
+		return tracks.length;
+	}
+
+	/**
+	 * Gets the target written by the given track, or null if this timeline
+	 * is not bound.
+	 */
+	public Object getTrackTarget(int track) {
+		return trackTargets != null ? trackTargets[track] : null;
+	}
+
+	public int getTrackType(int track) {
+		return tracks[track].type;
+	}
+
+	public boolean containsTarget(Object target) {
+		if (trackTargets == null) return false;
+		for (int i=0; i<trackTargets.length; i++) if (trackTargets[i] == target) return true;
+		return false;
+	}
+
+	public boolean containsTarget(Object target, int tweenType) {
+		if (trackTargets == null) return false;
+		for (int i=0; i<trackTargets.length; i++) if (trackTargets[i] == target && tracks[i].type == tweenType) return true;
+		return false;
+	}
+
+	// -------------------------------------------------------------------------
+	// Helpers
+	// -------------------------------------------------------------------------
+
+	private void setBindings(Layout layout) {
+		int maxCnt = 0;
+		targets = layout.targets.toArray();
+		trackTargets = new Object[tracks.length];
+		trackAccessors = newAccessors(tracks.length);
+		for (int i=0; i<tracks.length; i++) {
+			trackTargets[i] = targets[tracks[i].targetIdx];
+			trackAccessors[i] = layout.accessors.get(i);
+			maxCnt = Math.max(maxCnt, tracks[i].valuesCnt);
+		}
+		buffer = new float[maxCnt];
+	}
+
+	@SuppressWarnings("unchecked")
+	private static TweenAccessor<Object>[] newAccessors(int n) {
+		return (TweenAccessor<Object>[]) new TweenAccessor<?>[n];
+	}
+
+	private static void removeCallbacks(BaseTween<?> obj) {
+		try {
+			callbackField.set(obj, null);
+		} catch (IllegalAccessException ex) {
+			throw new RuntimeException(ex);
+		}
+
+		if (obj instanceof Timeline) {
+			List<BaseTween<?>> children = getChildren((Timeline) obj);
+			for (int i=0, n=children.size(); i<n; i++) removeCallbacks(children.get(i));
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<BaseTween<?>> getChildren(Timeline timeline) {
+		try {
+			return (List<BaseTween<?>>) childrenField.get(timeline);
+		} catch (IllegalAccessException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	/**
+	 * The animated (target, tweenType) pairs of a built timeline, in tree
+	 * order, and a hash of its structure.
+	 */
+	private static class Layout {
+		private final List<Object> targets = new ArrayList<Object>();
+		private final Map<Object, Integer> targetIdxsMap = new IdentityHashMap<Object, Integer>();
+		private final List<Integer> targetIdxs = new ArrayList<Integer>();
+		private final List<Integer> types = new ArrayList<Integer>();
+		private final List<Integer> valuesCnts = new ArrayList<Integer>();
+		private final List<TweenAccessor<Object>> accessors = new ArrayList<TweenAccessor<Object>>();
+		private float[] buffer = new float[4];
+		private long hash = 17;
+
+		public Layout(Timeline timeline) {
+			visit(timeline);
+		}
+
+		public float[] getValues(int track) {
+			float[] values = new float[valuesCnts.get(track)];
+			if (buffer.length < values.length) buffer = new float[values.length];
+			accessors.get(track).getValues(targets.get(targetIdxs.get(track)), types.get(track), buffer);
+			System.arraycopy(buffer, 0, values, 0, values.length);
+			return values;
+		}
+
+		public void setValues(int track, float[] values) {
+			accessors.get(track).setValues(targets.get(targetIdxs.get(track)), types.get(track), values);
+		}
+
+		public long signature(float[][] initials) {
+			long h = hash;
+			for (float[] values : initials) for (float v : values) h = h * 31 + Float.floatToIntBits(v);
+			return h;
+		}
+
+		@SuppressWarnings("unchecked")
+		private void visit(BaseTween<?> obj) {
+			mix(obj.getDelay());
+			mix(obj.getDuration());
+			mix(obj.getRepeatCount());
+			mix(obj.getRepeatDelay());
+			mix(obj.isYoyo() ? 1 : 0);
+
+			if (obj instanceof Timeline) {
+				List<BaseTween<?>> children = getChildren((Timeline) obj);
+				mix(children.size());
+				for (int i=0, n=children.size(); i<n; i++) visit(children.get(i));
+				return;
+			}
+
+			Tween tween = (Tween) obj;
+			Object target = tween.getTarget();
+			if (target == null) {
+				mix(-1);
+				return;
+			}
+
+			Integer targetIdx = targetIdxsMap.get(target);
+			if (targetIdx == null) {
+				targetIdx = targets.size();
+				targetIdxsMap.put(target, targetIdx);
+				targets.add(target);
+			}
+
+			int cnt = tween.getCombinedAttributesCount();
+			mix(targetIdx);
+			mix(tween.getType());
+			mix(cnt);
+			mix(tween.getEasing() != null ? tween.getEasing().toString().hashCode() : 0);
+			for (int i=0; i<cnt; i++) mix(tween.getTargetValues()[i]);
+
+			for (int i=0; i<types.size(); i++) {
+				if (targetIdxs.get(i).intValue() == targetIdx && types.get(i) == tween.getType()) return;
+			}
+
+			targetIdxs.add(targetIdx);
+			types.add(tween.getType());
+			valuesCnts.add(cnt);
+			accessors.add((TweenAccessor<Object>) tween.getAccessor());
+		}
+
+		private void mix(float v) {
+			mix(Float.floatToIntBits(v));
+		}
+
+		private void mix(int v) {
+			hash = hash * 31 + v;
+		}
+	}
+
+	/**
+	 * The samples of a (target, tweenType) pair. Values are constant before
+	 * the first stored sample and after the last one.
+	 */
+	private static class Track {
+		private final int targetIdx;
+		private final int type;
+		private final int valuesCnt;
+		private final int first;
+		private final int last;
+		private final float[] values;
+
+		public Track(int targetIdx, int type, int valuesCnt, int first, int last, float[] values) {
+			this.targetIdx = targetIdx;
+			this.type = type;
+			this.valuesCnt = valuesCnt;
+			this.first = first;
+			this.last = last;
+			this.values = values;
+		}
+
+		public static Track compact(int targetIdx, int type, int cnt, float[] samples, int samplesCnt) {
+			int first = 0;
+			while (first < samplesCnt-1 && equals(samples, first+1, 0, cnt)) first += 1;
+			int last = samplesCnt-1;
+			while (last > first && equals(samples, last-1, samplesCnt-1, cnt)) last -= 1;
+
+			float[] values = new float[(last - first + 1) * cnt];
+			System.arraycopy(samples, first * cnt, values, 0, values.length);
+			return new Track(targetIdx, type, cnt, first, last, values);
+		}
+
+		private static boolean equals(float[] samples, int a, int b, int cnt) {
+			for (int k=0; k<cnt; k++) if (samples[a*cnt + k] != samples[b*cnt + k]) return false;
+			return true;
+		}
+	}
+}
@@ -0,0 +1,57 @@
+package aurelienribon.timelines;
+
+import aurelienribon.tweenengine.BaseTween;
+
+/**
+ * Plays a {@link BakedTimeline} in a TweenManager. Create instances with
+ * {@link BakedTimeline#createTween()}.
+ */
+public class BakedTween extends BaseTween<BakedTween> {
+	private final BakedTimeline timeline;
+
+	BakedTween(BakedTimeline timeline) {
+		this.timeline = timeline;
+		reset();
+		duration = timeline.getDuration();
+	}
+
+	public BakedTimeline getTimeline() {
+		return timeline;
+	}
+
+	@Override
+	protected void updateOverride(int step, int lastStep, boolean isIterationStep, float delta) {
+		if (!isIterationStep && step > lastStep) {
+			timeline.apply(isReverse(lastStep) ? 0 : duration);
+			return;
+		}
+
+		if (!isIterationStep && step < lastStep) {
+			timeline.apply(isReverse(lastStep) ? duration : 0);
+			return;
+		}
+
+		float time = getCurrentTime();
+		timeline.apply(isReverse(step) ? duration - time : time);
+	}
+
+	@Override
+	protected void forceStartValues() {
+		timeline.apply(0);
+	}
+
+	@Override
+	protected void forceEndValues() {
+		timeline.apply(duration);
+	}
+
+	@Override
+	protected boolean containsTarget(Object target) {
+		return timeline.containsTarget(target);
+	}
+
+	@Override
+	protected boolean containsTarget(Object target, int tweenType) {
+		return timeline.containsTarget(target, tweenType);
+	}
+}
@@ -1,6 +1,7 @@
 package aurelienribon.tweenengine.demo;
 
 import aurelienribon.accessors.SpriteAccessor;
+import aurelienribon.monitoring.TweenMonitors;
 import aurelienribon.tweenengine.BaseTween;
 import aurelienribon.tweenengine.Tween;
 import aurelienribon.tweenengine.TweenCallback;
@@ -31,25 +32,29 @@ import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 public class App implements ApplicationListener {
     private SplashScreen splashScreen;
     private Launcher launcherScreen;
-    private boolean isLoaded = false;
+    private boolean isLoaded = false;     // splash的资源是否加载完成
+    private boolean isAllLoaded = false;  // 所有资源是否加载完成
 
     @Override
     public void create() {
         Tween.setWaypointsLimit(10);
         Tween.setCombinedAttributesLimit(3);
         Tween.registerAccessor(Sprite.class, new SpriteAccessor());
+        TweenMonitors.getEngine();  // JMX: aurelienribon.tweenengine:type=TweenEngine
 
-        Assets.inst().load("data/splash/pack", TextureAtlas.class);
-        Assets.inst().load("data/launcher/pack", TextureAtlas.class);
-        Assets.inst().load("data/test/pack", TextureAtlas.class);
-        Assets.inst().load("data/arial-16.fnt", BitmapFont.class);
-        Assets.inst().load("data/arial-18.fnt", BitmapFont.class);
-        Assets.inst().load("data/arial-20.fnt", BitmapFont.class);
-        Assets.inst().load("data/arial-24.fnt", BitmapFont.class);
+        // 资源在后台线程里解析和解码,splash的资源优先,准备好之后就可以开始显示splash
+        Assets.inst().preload("data/splash/pack", TextureAtlas.class, Assets.PRIORITY_HIGH);
+        Assets.inst().preload("data/launcher/pack", TextureAtlas.class, Assets.PRIORITY_NORMAL);
+        Assets.inst().preload("data/test/pack", TextureAtlas.class, Assets.PRIORITY_NORMAL);
+        Assets.inst().preload("data/arial-16.fnt", BitmapFont.class, Assets.PRIORITY_NORMAL);
+        Assets.inst().preload("data/arial-18.fnt", BitmapFont.class, Assets.PRIORITY_NORMAL);
+        Assets.inst().preload("data/arial-20.fnt", BitmapFont.class, Assets.PRIORITY_NORMAL);
+        Assets.inst().preload("data/arial-24.fnt", BitmapFont.class, Assets.PRIORITY_NORMAL);
     }
 
     @Override
     public void dispose() {
+        PerfHud.inst().dispose();
         Assets.inst().dispose();
         if (splashScreen != null) splashScreen.dispose();
         if (launcherScreen != null) launcherScreen.dispose();
@@ -57,22 +62,21 @@ public class App implements ApplicationListener {
 
     @Override
     public void render() {
+        PerfHud.inst().beginFrame();
 //        System.out.println("render beign{");
+        if (!isAllLoaded) isAllLoaded = Assets.inst().update();	// splash显示的同时,继续加载其他资源
+
         if (isLoaded) {
             if (splashScreen != null) splashScreen.render();
             if (launcherScreen != null) launcherScreen.render();
 //            System.out.println("splashScreen = " + splashScreen);
 //            System.out.println("launcherScreen = " + launcherScreen);
-        } else {
-            if (Assets.inst().getProgress() < 1) {
-                Assets.inst().update();
-//                System.out.println("Assets update");
-            } else {
-                launch();
-                isLoaded = true;
-//                System.out.println("launch()");
-            }
+        } else if (Assets.inst().isLoaded("data/splash/pack", TextureAtlas.class)) {
+            launch();
+            isLoaded = true;
+//            System.out.println("launch()");
         }
+        PerfHud.inst().endFrame();
 //        System.out.println("render end}");
     }
 
@@ -99,6 +103,11 @@ public class App implements ApplicationListener {
              */
             public void onEvent(int type, BaseTween source) {
 //                System.out.println("onEvent");
+                if (!isAllLoaded) {
+                    Assets.inst().finishLoading();  // splash结束时,其他资源一般早已加载完成
+                    isAllLoaded = true;
+                }
+
                 Test[] tests = new Test[]{
                         new Intro(),
                         new Info(),
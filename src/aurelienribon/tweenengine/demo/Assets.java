@@ -1,22 +1,426 @@
 package aurelienribon.tweenengine.demo;
 
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetLoaderParameters;
 import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.assets.loaders.SynchronousAssetLoader;
+import com.badlogic.gdx.assets.loaders.TextureLoader.TextureParameter;
+import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.TextureData;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.BitmapFont.BitmapFontData;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas.TextureAtlasData;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas.TextureAtlasData.Page;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.FileTextureData;
+import com.badlogic.gdx.utils.Array;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author Aurelien Ribon | http://www.aurelienribon.com/
  */
+
+/**
+ * Loading pipeline of the demo.
+ * <p>
+ *
+ * Assets queued with {@link #preload(String, Class, int)} are prepared on a
+ * pool of worker threads: their .pack or .fnt file is parsed, and each of
+ * their images is decoded in its own job, so that all the images of all the
+ * assets decode in parallel. Jobs run by decreasing priority. Once prepared,
+ * an asset is handed to the AssetManager on the GL thread by
+ * {@link #update()}, which is only left with the texture uploads.
+ * <p>
+ *
+ * update() works until every ready asset is loaded, or for at most
+ * {@link #UPDATE_BUDGET_MILLIS}, instead of doing a single step per call.
+ * Assets queued with load() still work as before, parsed and decoded on the
+ * GL thread.
+ * <p>
+ *
+ * Every texture atlas gets an {@link AtlasIndex} when it is loaded.
+ * <p>
+ *
+ * inst() and the AssetManager methods can be called from any thread, but
+ * update() and finishLoading() must be called by the GL thread.
+ */
 public class Assets extends AssetManager {
+	public static final int PRIORITY_HIGH = 10;
+	public static final int PRIORITY_NORMAL = 0;
+	public static final long UPDATE_BUDGET_MILLIS = 8;
+
 	private static Assets instance;
-	public static Assets inst() {
-		if (instance == null) instance = new Assets();
+	public static synchronized Assets inst() {
+		if (instance == null) instance = new Assets(new InternalFileHandleResolver());
 		return instance;
 	}
 
-	private Assets() {}
+	// -------------------------------------------------------------------------
+
+	private final FileHandleResolver resolver;
+	private final ThreadPoolExecutor workers;
+	private final AtomicInteger jobsCnt = new AtomicInteger();
+	private final List<Preparation> preparing = new ArrayList<Preparation>();
+	private final ConcurrentLinkedQueue<Preparation> prepared = new ConcurrentLinkedQueue<Preparation>();
+	private final List<Preparation> ready = new ArrayList<Preparation>();
+	private final Map<String, AtlasIndex> indexes = new HashMap<String, AtlasIndex>();
+
+	private Assets(FileHandleResolver resolver) {
+		super(resolver);
+		this.resolver = resolver;
+		setLoader(TextureAtlas.class, new AtlasLoader(resolver));
+		setLoader(BitmapFont.class, new FontLoader(resolver));
+
+		int threadsCnt = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+		workers = new ThreadPoolExecutor(threadsCnt, threadsCnt, 0, TimeUnit.MILLISECONDS, new PriorityBlockingQueue<Runnable>(), new ThreadFactory() {
+			private final AtomicInteger threadsCnt = new AtomicInteger();
+
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, "Assets-Worker-" + threadsCnt.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	// -------------------------------------------------------------------------
+	// Public API
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Queues a texture atlas or a bitmap font, to be prepared by the workers.
+	 * Assets with higher priorities are prepared and loaded first.
+	 */
+	public synchronized <T> void preload(String fileName, Class<T> type, int priority) {
+		if (type != TextureAtlas.class && type != BitmapFont.class) throw new RuntimeException("Only texture atlases and bitmap fonts can be preloaded");
+		Preparation prep = new Preparation(fileName, type, priority, jobsCnt.getAndIncrement());
+		preparing.add(prep);
+		workers.execute(new ParseJob(prep));
+	}
+
+	/**
+	 * Hands the prepared assets to the AssetManager, and loads them. Returns
+	 * true once every queued asset is loaded.
+	 */
+	@Override
+	public synchronized boolean update() {
+		Preparation prep;
+		while ((prep = prepared.poll()) != null) {
+			if (prep.error != null) throw new RuntimeException("Couldn't prepare asset '" + prep.fileName + "'", prep.error);
+			preparing.remove(prep);
+			ready.add(prep);
+		}
+
+		// Higher priorities first, then in the order they were asked
+		Collections.sort(ready, priorityComparator);
+		for (int i=0; i<ready.size(); i++) ready.get(i).load(this);
+		ready.clear();
+
+		long end = System.nanoTime() + UPDATE_BUDGET_MILLIS * 1000000;
+		boolean isDone;
+		do {
+			isDone = super.update();
+			if (!isDone) Thread.yield();
+		} while (!isDone && System.nanoTime() < end);
+
+		return isDone && preparing.isEmpty();
+	}
+
+	/**
+	 * Gets the index of a loaded texture atlas.
+	 */
+	public synchronized AtlasIndex getIndex(String fileName) {
+		AtlasIndex index = indexes.get(fileName);
+		if (index == null) throw new RuntimeException("Texture atlas '" + fileName + "' is not loaded");
+		return index;
+	}
+
+	@Override
+	public synchronized void unload(String fileName) {
+		super.unload(fileName);
+		if (!isLoaded(fileName)) indexes.remove(fileName);
+	}
+
+	@Override
+	public synchronized float getProgress() {
+		int loaded = getLoadedAssets();
+		int remaining = getQueuedAssets() + preparing.size();
+		return remaining == 0 ? 1 : loaded / (float) (loaded + remaining);
+	}
 
 	@Override
 	public synchronized void dispose() {
+		workers.shutdownNow();
+		try {
+			workers.awaitTermination(Long.MAX_VALUE, TimeUnit.SECONDS);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+
+		for (int i=0; i<preparing.size(); i++) preparing.get(i).disposeImages();
+		preparing.clear();
+		prepared.clear();
+
 		super.dispose();
-		instance = null;
+		indexes.clear();
+		synchronized (Assets.class) {
+			if (instance == this) instance = null;
+		}
+	}
+
+	// -------------------------------------------------------------------------
+	// Preparation
+	// -------------------------------------------------------------------------
+
+	private static final Comparator<Preparation> priorityComparator = new Comparator<Preparation>() {
+		@Override
+		public int compare(Preparation a, Preparation b) {
+			if (a.priority != b.priority) return a.priority > b.priority ? -1 : 1;
+			return a.order < b.order ? -1 : a.order > b.order ? 1 : 0;
+		}
+	};
+
+	/**
+	 * An asset being prepared by the workers: its parsed data, and its decoded
+	 * images.
+	 */
+	private static class Preparation {
+		private final String fileName;
+		private final Class<?> type;
+		private final int priority;
+		private final int order;
+		private final AtomicInteger remainingImages = new AtomicInteger();
+		private volatile TextureAtlasData atlasData;
+		private volatile BitmapFontData fontData;
+		private volatile TextureData[] images;
+		private volatile Throwable error;
+
+		public Preparation(String fileName, Class<?> type, int priority, int order) {
+			this.fileName = fileName;
+			this.type = type;
+			this.priority = priority;
+			this.order = order;
+		}
+
+		@SuppressWarnings("unchecked")
+		public void load(AssetManager manager) {
+			if (type == TextureAtlas.class) {
+				AtlasParameter params = new AtlasParameter();
+				params.data = atlasData;
+				params.images = images;
+				manager.load(fileName, TextureAtlas.class, params);
+			} else {
+				FontParameter params = new FontParameter();
+				params.data = fontData;
+				params.image = images[0];
+				manager.load(fileName, BitmapFont.class, params);
+			}
+		}
+
+		public void disposeImages() {
+			TextureData[] images = this.images;
+			if (images == null) return;
+			for (int i=0; i<images.length; i++) {
+				if (images[i] != null && images[i].isPrepared()) images[i].consumePixmap().dispose();
+			}
+		}
+	}
+
+	/**
+	 * Worker jobs, run by decreasing priority.
+	 */
+	private abstract static class Job implements Runnable, Comparable<Job> {
+		protected final Preparation prep;
+
+		public Job(Preparation prep) {
+			this.prep = prep;
+		}
+
+		@Override
+		public int compareTo(Job other) {
+			return priorityComparator.compare(prep, other.prep);
+		}
+	}
+
+	/**
+	 * Parses the .pack or .fnt file of an asset, and queues the decoding of
+	 * its images.
+	 */
+	private class ParseJob extends Job {
+		public ParseJob(Preparation prep) {
+			super(prep);
+		}
+
+		@Override
+		public void run() {
+			List<FileHandle> files = new ArrayList<FileHandle>();
+			try {
+				FileHandle file = resolver.resolve(prep.fileName);
+				if (prep.type == TextureAtlas.class) {
+					prep.atlasData = new TextureAtlasData(file, file.parent(), false);
+					for (Page page : prep.atlasData.getPages()) files.add(resolver.resolve(page.textureFile.path()));
+				} else {
+					prep.fontData = new BitmapFontData(file, false);
+					files.add(resolver.resolve(prep.fontData.getImagePath()));
+				}
+			} catch (Throwable ex) {
+				prep.error = ex;
+				prepared.add(prep);
+				return;
+			}
+
+			prep.images = new TextureData[files.size()];
+			prep.remainingImages.set(files.size());
+			if (files.isEmpty()) prepared.add(prep);
+			for (int i=0; i<files.size(); i++) workers.execute(new DecodeJob(prep, i, files.get(i)));
+		}
+	}
+
+	/**
+	 * Decodes one image of an asset.
+	 */
+	private class DecodeJob extends Job {
+		private final int index;
+		private final FileHandle file;
+
+		public DecodeJob(Preparation prep, int index, FileHandle file) {
+			super(prep);
+			this.index = index;
+			this.file = file;
+		}
+
+		@Override
+		public void run() {
+			try {
+				Pixmap.Format format = null;
+				boolean useMipMaps = false;
+				if (prep.atlasData != null) {
+					Page page = prep.atlasData.getPages().get(index);
+					format = page.format;
+					useMipMaps = page.useMipMaps;
+				}
+
+				TextureData data = new FileTextureData(file, new Pixmap(file), format, useMipMaps);
+				data.prepare();
+				prep.images[index] = data;
+			} catch (Throwable ex) {
+				prep.error = ex;
+			}
+
+			if (prep.remainingImages.decrementAndGet() == 0) prepared.add(prep);
+		}
+	}
+
+	// -------------------------------------------------------------------------
+	// Loaders
+	// -------------------------------------------------------------------------
+
+	private static class AtlasParameter extends AssetLoaderParameters<TextureAtlas> {
+		private TextureAtlasData data;
+		private TextureData[] images;
+	}
+
+	private static class FontParameter extends AssetLoaderParameters<BitmapFont> {
+		private BitmapFontData data;
+		private TextureData image;
+	}
+
+	/**
+	 * Same as the TextureAtlasLoader of libgdx, but using the parsed data and
+	 * decoded images of the parameter when there is one.
+	 */
+	private static class AtlasLoader extends SynchronousAssetLoader<TextureAtlas, AtlasParameter> {
+		private TextureAtlasData data;
+
+		public AtlasLoader(FileHandleResolver resolver) {
+			super(resolver);
+		}
+
+		@Override
+		public TextureAtlas load(AssetManager manager, String fileName, AtlasParameter params) {
+			for (Page page : data.getPages()) {
+				page.texture = manager.get(getPath(page.textureFile), Texture.class);
+			}
+
+			TextureAtlas atlas = new TextureAtlas(data);
+			((Assets) manager).indexes.put(fileName, new AtlasIndex(atlas));
+			return atlas;
+		}
+
+		@Override
+		@SuppressWarnings("rawtypes")
+		public Array<AssetDescriptor> getDependencies(String fileName, AtlasParameter params) {
+			FileHandle file = resolve(fileName);
+			data = params != null ? params.data : new TextureAtlasData(file, file.parent(), false);
+
+			Array<AssetDescriptor> dependencies = new Array<AssetDescriptor>();
+			Array<Page> pages = data.getPages();
+			for (int i=0; i<pages.size; i++) {
+				Page page = pages.get(i);
+				TextureParameter textureParams = new TextureParameter();
+				textureParams.format = page.format;
+				textureParams.genMipMaps = page.useMipMaps;
+				textureParams.minFilter = page.minFilter;
+				textureParams.magFilter = page.magFilter;
+				if (params != null) textureParams.textureData = params.images[i];
+				dependencies.add(new AssetDescriptor<Texture>(getPath(page.textureFile), Texture.class, textureParams));
+			}
+			return dependencies;
+		}
+
+		private String getPath(FileHandle file) {
+			return resolve(file.path()).path().replaceAll("\\\\", "/");
+		}
+	}
+
+	/**
+	 * Same as the BitmapFontLoader of libgdx, but using the parsed data and
+	 * decoded image of the parameter when there is one.
+	 */
+	private static class FontLoader extends SynchronousAssetLoader<BitmapFont, FontParameter> {
+		private BitmapFontData data;
+
+		public FontLoader(FileHandleResolver resolver) {
+			super(resolver);
+		}
+
+		@Override
+		public BitmapFont load(AssetManager manager, String fileName, FontParameter params) {
+			TextureRegion region = new TextureRegion(manager.get(data.getImagePath(), Texture.class));
+			return new BitmapFont(data, region, true);
+		}
+
+		@Override
+		@SuppressWarnings("rawtypes")
+		public Array<AssetDescriptor> getDependencies(String fileName, FontParameter params) {
+			data = params != null ? params.data : new BitmapFontData(resolve(fileName), false);
+
+			TextureParameter textureParams = null;
+			if (params != null) {
+				textureParams = new TextureParameter();
+				textureParams.textureData = params.image;
+			}
+
+			Array<AssetDescriptor> dependencies = new Array<AssetDescriptor>();
+			dependencies.add(new AssetDescriptor<Texture>(data.getImagePath(), Texture.class, textureParams));
+			return dependencies;
+		}
 	}
 }
@@ -0,0 +1,109 @@
+package aurelienribon.tweenengine.demo;
+
+import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas.AtlasRegion;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas.AtlasSprite;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Integer handles on the regions of a TextureAtlas.
+ * <p>
+ *
+ * TextureAtlas.findRegion() and createSprite() compare the given name with
+ * every region of the atlas. The index resolves each name once, when the
+ * atlas is loaded (see {@link Assets#getIndex(String)}), and keeps a
+ * prototype sprite per region. Get the handles once, out of the hot paths:
+ * creating a sprite from a handle only copies its prototype.
+ * <pre>
+ * int handle = index.getHandle("sprite1");
+ * ...
+ * Sprite sprite = index.createSprite(handle);
+ * </pre>
+ *
+ * Like findRegion(name), a name shared by several regions (with different
+ * indices) resolves to the first one.
+ */
+public class AtlasIndex {
+	private final TextureAtlas atlas;
+	private final Map<String, Integer> handles = new HashMap<String, Integer>();
+	private final AtlasRegion[] regions;
+	private final Sprite[] prototypes;
+
+	public AtlasIndex(TextureAtlas atlas) {
+		this.atlas = atlas;
+
+		List<AtlasRegion> atlasRegions = atlas.getRegions();
+		regions = atlasRegions.toArray(new AtlasRegion[atlasRegions.size()]);
+		prototypes = new Sprite[regions.length];
+
+		for (int i=0; i<regions.length; i++) {
+			if (!handles.containsKey(regions[i].name)) handles.put(regions[i].name, i);
+			prototypes[i] = createPrototype(regions[i]);
+		}
+	}
+
+	// -------------------------------------------------------------------------
+	// Public API
+	// -------------------------------------------------------------------------
+
+	public TextureAtlas getAtlas() {
+		return atlas;
+	}
+
+	/**
+	 * Gets the handle of the given region. Throws if there is no such region.
+	 */
+	public int getHandle(String name) {
+		Integer handle = handles.get(name);
+		if (handle == null) throw new RuntimeException("No region named '" + name + "' in the atlas");
+		return handle;
+	}
+
+	public boolean hasRegion(String name) {
+		return handles.containsKey(name);
+	}
+
+	public AtlasRegion getRegion(int handle) {
+		return regions[handle];
+	}
+
+	/**
+	 * Creates a new sprite from the prototype of the given region, as
+	 * TextureAtlas.createSprite() would.
+	 */
+	public Sprite createSprite(int handle) {
+		Sprite prototype = prototypes[handle];
+		if (prototype instanceof AtlasSprite) return new AtlasSprite(regions[handle]);
+		return new Sprite(prototype);
+	}
+
+	public Sprite createSprite(String name) {
+		return createSprite(getHandle(name));
+	}
+
+	public int getRegionsCount() {
+		return regions.length;
+	}
+
+	// -------------------------------------------------------------------------
+	// Helpers
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Same as the private TextureAtlas.newSprite().
+	 */
+	private static Sprite createPrototype(AtlasRegion region) {
+		if (region.packedWidth == region.originalWidth && region.packedHeight == region.originalHeight) {
+			Sprite sprite = new Sprite(region);
+			if (region.rotate) {
+				sprite.setBounds(0, 0, region.getRegionHeight(), region.getRegionWidth());
+				sprite.rotate90(true);
+			}
+			return sprite;
+		}
+		return new AtlasSprite(region);
+	}
+}
@@ -1,10 +1,12 @@
 package aurelienribon.tweenengine.demo;
 
 import aurelienribon.accessors.SpriteAccessor;
+import aurelienribon.managers.FixedStepClock;
+import aurelienribon.managers.IndexedTweenManager;
+import aurelienribon.monitoring.TweenMonitors;
 import aurelienribon.tweenengine.BaseTween;
 import aurelienribon.tweenengine.Tween;
 import aurelienribon.tweenengine.TweenCallback;
-import aurelienribon.tweenengine.TweenManager;
 import aurelienribon.tweenengine.equations.Cubic;
 import aurelienribon.tweenengine.equations.Quart;
 import com.badlogic.gdx.Gdx;
@@ -18,7 +20,7 @@ import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.Sprite;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.math.Matrix4;
 import com.badlogic.gdx.math.Vector3;
 import java.util.ArrayList;
 import java.util.List;
@@ -29,11 +31,24 @@ import java.util.List;
 public class Launcher {
 	private static final int TILES_PER_LINE = 3;		// tiles的行数
 	private static final float TILES_PADDING = 0.04f;	// tiles的padding
-
-	private final List<Tile> tiles = new ArrayList<Tile>();
-	private final TweenManager tweenManager = new TweenManager();
+	private static final int LOADED_ROWS_MARGIN = 1;	// 视口上下各多加载的行数
+	private static final int UNLOADED_ROWS_MARGIN = 3;	// 离开视口多少行之后才释放, 避免来回滚动时反复加载
+
+	// Layers of the render queue
+	private static final int LAYER_BACKGROUND = 0;
+	private static final int LAYER_TILES = 1;
+	private static final int LAYER_ACTIVE_TILE = LAYER_TILES + Tile.LAYERS_CNT;	// 正在放大/缩小的tile,盖住其他的tiles
+	private static final int LAYER_TITLE = LAYER_ACTIVE_TILE + Tile.LAYERS_CNT;
+	private static final int LAYER_VEIL = LAYER_TITLE + 1;
+
+	private final TileGrid grid;
+	private final List<Tile> loadedTiles = new ArrayList<Tile>();	// 已加载sprites的tiles
+	private final IndexedTweenManager tweenManager = new IndexedTweenManager();	// tiles按target杀tweens,按target索引
+	private final FixedStepClock clock = new FixedStepClock(tweenManager);	// 以固定步长(120Hz)推进tweenManager
 	private final OrthographicCamera camera = new OrthographicCamera();
 	private final SpriteBatch batch = new SpriteBatch();
+	private final RenderQueue queue = new RenderQueue();
+	private final Matrix4 screenProjection = new Matrix4();
 	private final BitmapFont font;
 	private final Sprite background;
 	private final Sprite title;			// title的背景(黑色)
@@ -42,6 +57,9 @@ public class Launcher {
 	private final Sprite veil;
 	private final float tileW, tileH;
 	private Tile selectedTile;			// 被选中的Tile
+	private Tile activeTile;			// 正在放大/缩小的Tile
+	private boolean isEntered;			// tiles的进场动画是否已经开始
+	private int firstRow, lastRow;		// 视口(加上margin)内的行
 
 	public Launcher(Test[] tests) {
 		int w = Gdx.graphics.getWidth();
@@ -52,12 +70,14 @@ public class Launcher {
 		camera.viewportWidth = wpw;
 		camera.viewportHeight = wph;
 		camera.update();
+		PerfHud.inst().register(batch);
+		PerfHud.inst().register(queue);
 
 		font = Assets.inst().get("data/arial-18.fnt", BitmapFont.class);
 		font.setScale(0.0025f);
 		font.setUseIntegerPositions(false);
 
-		TextureAtlas atlas = Assets.inst().get("data/launcher/pack", TextureAtlas.class);
+		AtlasIndex atlas = Assets.inst().getIndex("data/launcher/pack");
 		background = atlas.createSprite("background");
 		title = atlas.createSprite("title");
 		titleLeft = atlas.createSprite("title-left");
@@ -84,30 +104,32 @@ public class Launcher {
 
 		tileW = (wpw-TILES_PADDING)/TILES_PER_LINE - TILES_PADDING;	// opengl坐标系下tile的width
 		tileH = tileW * 150 / 250;	// opengl坐标系下tile的height
-		float tileX = -wpw/2 + TILES_PADDING;	// opengl坐标系下第一个tile的x坐标
-		float tileY = wph/2 - tileH - TILES_PADDING - titleHmts;	// opengl坐标系下第一个tile的y坐标
+		float gridLeft = -wpw/2 + TILES_PADDING;	// opengl坐标系下第一列tile的左边
+		float gridTop = wph/2 - TILES_PADDING - titleHmts;	// opengl坐标系下第一行tile的上边
+		grid = new TileGrid(tests.length, TILES_PER_LINE, gridLeft, gridTop, tileW, tileH, TILES_PADDING);
 
-		// 设置所有tile的位置和回调
+		// 设置所有tile的位置和回调. tile的sprites在其所在行滚进视口时才创建
 		for (int i=0; i<tests.length; i++) {
-			tiles.add(new Tile(tileX, tileY, tileW, tileH, tests[i], atlas, camera, font, tweenManager));
+			float tileX = grid.getTileX(grid.getColumnOf(i));
+			float tileY = grid.getTileY(grid.getRowOf(i));
+			grid.set(i, new Tile(tileX, tileY, tileW, tileH, tests[i], atlas, camera, font, tweenManager));
 			tests[i].setCallback(testCallback);
-
-			tileX += tileW + TILES_PADDING;
-			if (i > 0 && i%TILES_PER_LINE == TILES_PER_LINE-1) {
-				tileX = -camera.viewportWidth/2 + TILES_PADDING;
-				tileY += -tileH - TILES_PADDING;
-			}
 		}
+
+		updateLoadedRows();
 	}
 
 	public void dispose() {
 		tweenManager.killAll();
+		PerfHud.inst().unregister(batch);
+		PerfHud.inst().unregister(queue);
+		TweenMonitors.remove(tweenManager);
 		batch.dispose();
 		font.dispose();
 	}
 
 	public void render() {
-		tweenManager.update(Gdx.graphics.getDeltaTime());
+		PerfHud.inst().update(clock, Gdx.graphics.getDeltaTime(), "Launcher");
 
 		GLCommon gl = Gdx.gl;
 		gl.glClearColor(1, 1, 1, 1);
@@ -119,33 +141,79 @@ public class Launcher {
 		int h = Gdx.graphics.getHeight();
 
 		if (selectedTile == null) {
-			batch.getProjectionMatrix().setToOrtho2D(0, 0, w, h);
-			batch.begin();
-			batch.disableBlending();
-			background.draw(batch);
-			batch.end();
-
-			batch.setProjectionMatrix(camera.combined);
-			batch.begin();
-			batch.enableBlending();
-			for (int i=0; i<tiles.size(); i++) tiles.get(i).draw(batch);
-			batch.end();
-
-			batch.getProjectionMatrix().setToOrtho2D(0, 0, w, h);
-			batch.begin();
-			batch.disableBlending();
-			title.draw(batch);
-			titleLeft.draw(batch);
-			titleRight.draw(batch);
-			batch.enableBlending();
-			if (veil.getColor().a > 0.1f) veil.draw(batch);
-			batch.end();
+			screenProjection.setToOrtho2D(0, 0, w, h);
+			queue.begin();
+
+			queue.setLayer(LAYER_BACKGROUND);
+			queue.setProjection(screenProjection);
+			queue.setBlending(false);
+			queue.add(background);
+
+			updateLoadedRows();
+
+			// 只绘制视口内的行, 正在放大/缩小的tile单独绘制
+			queue.setProjection(camera.combined);
+			queue.setBlending(true);
+			for (int row=firstRow; row<=lastRow; row++) {
+				for (int col=0; col<TILES_PER_LINE; col++) {
+					Tile tile = grid.get(row, col);
+					if (tile != null && tile != activeTile) tile.draw(queue, LAYER_TILES);
+				}
+			}
+			if (activeTile != null) activeTile.draw(queue, LAYER_ACTIVE_TILE);
+
+			queue.setLayer(LAYER_TITLE);
+			queue.setProjection(screenProjection);
+			queue.setBlending(false);
+			queue.add(title);
+			queue.add(titleLeft);
+			queue.add(titleRight);
+
+			queue.setLayer(LAYER_VEIL);
+			queue.setBlending(true);
+			if (veil.getColor().a > 0.1f) queue.add(veil);
+
+			queue.end(batch);
 
 		} else {
 			selectedTile.getTest().render();
 		}
 	}
 
+	/**
+	 * Loads the tiles of the rows in the camera viewport, plus a margin, and
+	 * unloads the ones which went far enough out of it. Only loaded tiles
+	 * have sprites and tweens: the cost of a frame depends on the viewport,
+	 * not on the number of tiles.
+	 */
+	private void updateLoadedRows() {
+		float margin = LOADED_ROWS_MARGIN * grid.getRowHeight();
+		firstRow = Math.max(grid.getRowAt(camera.position.y + camera.viewportHeight/2 + margin), 0);
+		lastRow = Math.min(grid.getRowAt(camera.position.y - camera.viewportHeight/2 - margin), grid.getRowsCount()-1);
+
+		for (int i=loadedTiles.size()-1; i>=0; i--) {
+			Tile tile = loadedTiles.get(i);
+			int row = grid.getRowOf(tile);
+			if (tile == activeTile || tile == selectedTile) continue;
+			if (row >= firstRow - UNLOADED_ROWS_MARGIN && row <= lastRow + UNLOADED_ROWS_MARGIN) continue;
+
+			tile.unload();
+			loadedTiles.set(i, loadedTiles.get(loadedTiles.size()-1));
+			loadedTiles.remove(loadedTiles.size()-1);
+		}
+
+		for (int row=firstRow; row<=lastRow; row++) {
+			for (int col=0; col<TILES_PER_LINE; col++) {
+				Tile tile = grid.get(row, col);
+				if (tile == null || tile.isLoaded()) continue;
+
+				// 进场动画开始之后才滚进来的tile, 直接放在原来的位置上
+				tile.load(isEntered);
+				loadedTiles.add(tile);
+			}
+		}
+	}
+
 	/**
 	 * title从上到下show出来
 	 * @param delay
@@ -174,6 +242,7 @@ public class Launcher {
 	 * 关闭test动画和title下移动画是同时进行的
 	 */
 	private void closeSelectedTile() {
+		activeTile = selectedTile;
 		selectedTile.minimize(minimizeCallback);
 		selectedTile = null;
 		Gdx.input.setInputProcessor(null);
@@ -198,11 +267,15 @@ public class Launcher {
 		@Override
 		public void onEvent(int type, BaseTween source) {
 			showTitle(0);
-			for (int i=0; i<tiles.size(); i++) {
-				int row = i / TILES_PER_LINE;
-				int col = i % TILES_PER_LINE;
-				float delay = row * 0.07f + col * 0.15f;
-				tiles.get(i).enter(delay);
+			isEntered = true;
+
+			// 只有已加载的tiles做进场动画
+			for (int i=0; i<loadedTiles.size(); i++) {
+				Tile tile = loadedTiles.get(i);
+				int row = grid.getRowOf(tile) - firstRow;
+				int col = grid.getColumnOf(tile);
+				float delay = Math.max(row, 0) * 0.07f + col * 0.15f;
+				tile.enter(delay);
 			}
 		}
 	};
@@ -214,6 +287,7 @@ public class Launcher {
 		@Override
 		public void onEvent(int type, BaseTween source) {
 			selectedTile = (Tile) source.getUserData();
+			activeTile = null;
 			selectedTile.getTest().initialize();
 			Gdx.input.setInputProcessor(testInputMultiplexer);	// 将inputMultiplexer设置到input里
 			Gdx.input.setCatchBackKey(true);
@@ -234,6 +308,7 @@ public class Launcher {
 		public void onEvent(int type, BaseTween source) {
 			Tile tile = (Tile) source.getUserData();
 			tile.getTest().dispose();
+			activeTile = null;
 			Gdx.input.setInputProcessor(launcherInputProcessor);
 			Gdx.input.setCatchBackKey(false);
 		}
@@ -247,6 +322,7 @@ public class Launcher {
 		private boolean isDragged;
 		private float firstY;
 		private float lastY;
+		private final Vector3 touchPoint = new Vector3();
 
 		@Override
 		public boolean touchDown(int x, int y, int pointer, int button) {
@@ -277,14 +353,14 @@ public class Launcher {
 		@Override
 		public boolean touchUp(int x, int y, int pointer, int button) {
 			if (!isDragged) {
-				Vector3 v = new Vector3(x, y, 0);
-				camera.unproject(v);
+				touchPoint.set(x, y, 0);
+				camera.unproject(touchPoint);
 
-				Tile tile = getOverTile(v.x, v.y);
+				// 通过网格直接算出点击的tile, 放大中的tile在LAYER_ACTIVE_TILE绘制, 无需调整顺序
+				Tile tile = grid.getTileAt(touchPoint.x, touchPoint.y);
 
-				if (tile != null) {
-					tiles.remove(tile);
-					tiles.add(tile);
+				if (tile != null && tile.isLoaded()) {
+					activeTile = tile;
 					tile.maximize(maximizeCallback);
 					Gdx.input.setInputProcessor(null);
 					hideTitle(0.4f);
@@ -302,23 +378,11 @@ public class Launcher {
 			return true;
 		}
 
-		/**
-		 * 若点击到tile,则返回tile 否则返回null
-		 * @param x	opengl世界的坐标
-		 * @param y opengl世界的坐标
-         * @return
-         */
-		private Tile getOverTile(float x, float y) {
-			for (int i=0; i<tiles.size(); i++)
-				if (tiles.get(i).isOver(x, y)) return tiles.get(i);
-			return null;
-		}
-
 		/**
 		 * 滚轮滚动时,移动camera
 		 */
 		private void trimCamera() {
-			int linesCntMinusOne = Math.max(tiles.size()-1, 0) / TILES_PER_LINE;
+			int linesCntMinusOne = Math.max(grid.getRowsCount()-1, 0);
 			float min = -linesCntMinusOne * (tileH + TILES_PADDING) + camera.viewportHeight/2;
 			float max = 0;
 
@@ -0,0 +1,397 @@
+package aurelienribon.tweenengine.demo;
+
+import aurelienribon.managers.FixedStepClock;
+import aurelienribon.monitoring.TweenManagerMonitor;
+import aurelienribon.monitoring.TweenMonitors;
+import aurelienribon.tweenengine.TweenManager;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input.Keys;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.BitmapFontCache;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Performance overlay, toggled with {@link #TOGGLE_KEY}.
+ * <p>
+ *
+ * The App brackets every frame with {@link #beginFrame()} and {@link
+ * #endFrame()}, and the screens update their TweenManagers through {@link
+ * #update(TweenManager, float, String)}, or their clocks through {@link
+ * #update(FixedStepClock, float, String)}, so that the frame time can be split
+ * between the tween updates and the rest (rendering). Frame times go in a
+ * preallocated histogram over the last {@link #WINDOW} frames, from which the
+ * percentiles are read. The overlay also shows the tweens and timelines held
+ * by each manager updated in the frame (as last sampled by its
+ * TweenManagerMonitor), the render calls of the registered SpriteBatches,
+ * the flushes saved by the registered RenderQueues, the items drawn and
+ * culled by the registered ViewCullers, and the bytes allocated per frame by
+ * the render thread (the thread which first used the overlay).
+ * <p>
+ *
+ * The text is rebuilt in place every {@link #REFRESH_PERIOD} seconds, and
+ * laid out then into two BitmapFontCaches, the text and its shadow, which
+ * are drawn as is between two refreshes. They have their own colors, so the
+ * shared font is left untouched. Nothing is allocated once the overlay is
+ * shown, and {@link #dispose()} releases its batch.
+ */
+public class PerfHud {
+	public static final int TOGGLE_KEY = Keys.F3;
+	public static final int WINDOW = 240;
+	public static final float REFRESH_PERIOD = 0.25f;
+
+	private static final float BUCKET_MS = 0.1f;
+	private static final int BUCKETS = 500;
+	private static final int MAX_MANAGERS = 8;
+
+	private static final MethodHandle allocatedBytesHandle = findAllocatedBytesHandle();
+
+	private static PerfHud instance;
+	public static PerfHud inst() {
+		if (instance == null) instance = new PerfHud();
+		return instance;
+	}
+
+	// -------------------------------------------------------------------------
+
+	private final int[] histogram = new int[BUCKETS];
+	private final int[] window = new int[WINDOW];
+	private int windowHead;
+	private int windowSize;
+
+	private final List<SpriteBatch> batches = new ArrayList<SpriteBatch>();
+	private final List<RenderQueue> queues = new ArrayList<RenderQueue>();
+	private final List<ViewCuller> cullers = new ArrayList<ViewCuller>();
+	private final TweenManagerMonitor[] monitors = new TweenManagerMonitor[MAX_MANAGERS];
+	private int monitorsCnt;
+
+	private long frameStart;
+	private long frameUpdateNanos;
+	private long frameAllocStart;
+
+	private int sampledFrames;
+	private long sampledNanos;
+	private long sampledUpdateNanos;
+	private long sampledAlloc;
+	private int sampledRenderCalls;
+	private int sampledSavedFlushes;
+	private int sampledDrawn;
+	private int sampledCulled;
+	private float refreshTimer;
+
+	private final MonitorStepper monitorStepper = new MonitorStepper();
+	private final StringBuilder text = new StringBuilder(512);
+	private SpriteBatch hudBatch;
+	private BitmapFontCache textLayout;
+	private BitmapFontCache shadowLayout;
+	private boolean isVisible;
+	private boolean wasKeyPressed;
+
+	private PerfHud() {}
+
+	// -------------------------------------------------------------------------
+	// Public API
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Adds a batch whose render calls are shown.
+	 */
+	public void register(SpriteBatch batch) {
+		batches.add(batch);
+	}
+
+	public void unregister(SpriteBatch batch) {
+		batches.remove(batch);
+	}
+
+	/**
+	 * Adds a queue whose saved flushes are shown.
+	 */
+	public void register(RenderQueue queue) {
+		queues.add(queue);
+	}
+
+	public void unregister(RenderQueue queue) {
+		queues.remove(queue);
+	}
+
+	/**
+	 * Adds a culler whose drawn and culled items are shown.
+	 */
+	public void register(ViewCuller culler) {
+		cullers.add(culler);
+	}
+
+	public void unregister(ViewCuller culler) {
+		cullers.remove(culler);
+	}
+
+	public boolean isVisible() {
+		return isVisible;
+	}
+
+	public void setVisible(boolean isVisible) {
+		this.isVisible = isVisible;
+	}
+
+	/**
+	 * Updates the given manager, measuring how long it takes. The update goes
+	 * through its {@link TweenManagerMonitor}, for JMX and the flight
+	 * recorder.
+	 */
+	public void update(TweenManager manager, float delta, String name) {
+		TweenManagerMonitor monitor = TweenMonitors.get(manager, name);
+		long t = System.nanoTime();
+		monitor.update(delta);
+		frameUpdateNanos += System.nanoTime() - t;
+		addMonitor(monitor);
+	}
+
+	/**
+	 * Updates the manager of the given clock, as {@link #update(TweenManager,
+	 * float, String)} does, by its fixed steps.
+	 */
+	public void update(FixedStepClock clock, float delta, String name) {
+		TweenManagerMonitor monitor = TweenMonitors.get(clock.getManager(), name);
+		monitorStepper.monitor = monitor;
+		long t = System.nanoTime();
+		clock.update(delta, monitorStepper);
+		frameUpdateNanos += System.nanoTime() - t;
+		monitorStepper.monitor = null;
+		addMonitor(monitor);
+	}
+
+	public void beginFrame() {
+		boolean isKeyPressed = Gdx.input != null && Gdx.input.isKeyPressed(TOGGLE_KEY);
+		if (isKeyPressed && !wasKeyPressed) isVisible = !isVisible;
+		wasKeyPressed = isKeyPressed;
+
+		for (int i=0; i<monitorsCnt; i++) monitors[i] = null;
+		monitorsCnt = 0;
+		frameUpdateNanos = 0;
+		frameAllocStart = allocatedBytes();
+		frameStart = System.nanoTime();
+	}
+
+	/**
+	 * Records the frame, and draws the overlay if it is visible.
+	 */
+	public void endFrame() {
+		long frameNanos = System.nanoTime() - frameStart;
+		long alloc = frameAllocStart == Long.MIN_VALUE ? Long.MIN_VALUE : allocatedBytes() - frameAllocStart;
+
+		int renderCalls = 0;
+		for (int i=0, n=batches.size(); i<n; i++) {
+			SpriteBatch batch = batches.get(i);
+			renderCalls += batch.totalRenderCalls;
+			batch.totalRenderCalls = 0;
+		}
+
+		int savedFlushes = 0;
+		for (int i=0, n=queues.size(); i<n; i++) {
+			RenderQueue queue = queues.get(i);
+			savedFlushes += queue.getTotalSavedFlushes();
+			queue.resetTotalSavedFlushes();
+		}
+
+		int drawn = 0, culled = 0;
+		for (int i=0, n=cullers.size(); i<n; i++) {
+			ViewCuller culler = cullers.get(i);
+			drawn += culler.getTotalDrawn();
+			culled += culler.getTotalCulled();
+			culler.resetTotals();
+		}
+
+		record(frameNanos);
+		sampledFrames += 1;
+		sampledNanos += frameNanos;
+		sampledUpdateNanos += frameUpdateNanos;
+		sampledAlloc = alloc == Long.MIN_VALUE ? Long.MIN_VALUE : sampledAlloc + alloc;
+		sampledRenderCalls += renderCalls;
+		sampledSavedFlushes += savedFlushes;
+		sampledDrawn += drawn;
+		sampledCulled += culled;
+
+		if (!isVisible) return;
+
+		refreshTimer -= Gdx.graphics.getDeltaTime();
+		if (!Assets.inst().isLoaded("data/arial-16.fnt", BitmapFont.class)) return;
+		BitmapFont font = Assets.inst().get("data/arial-16.fnt", BitmapFont.class);
+
+		if (refreshTimer <= 0 || textLayout == null || textLayout.getFont() != font) {
+			refreshTimer = REFRESH_PERIOD;
+			refresh();
+			layout(font);
+		}
+
+		draw();
+	}
+
+	/**
+	 * Releases the batch of the overlay. It is created again if the overlay
+	 * is drawn afterwards.
+	 */
+	public void dispose() {
+		if (hudBatch != null) hudBatch.dispose();
+		hudBatch = null;
+		textLayout = shadowLayout = null;	// 不能dispose: BitmapFontCache.dispose()会dispose字体
+	}
+
+	/**
+	 * Gets the given percentile of the frame times over the window, in
+	 * milliseconds, rounded up to the histogram resolution.
+	 */
+	public float getFrameTimePercentile(float p) {
+		if (windowSize == 0) return 0;
+		int rank = Math.max(1, (int) Math.ceil(p * windowSize));
+		int cnt = 0;
+		for (int i=0; i<BUCKETS; i++) {
+			cnt += histogram[i];
+			if (cnt >= rank) return (i+1) * BUCKET_MS;
+		}
+		return BUCKETS * BUCKET_MS;
+	}
+
+	// -------------------------------------------------------------------------
+	// Helpers
+	// -------------------------------------------------------------------------
+
+	private void addMonitor(TweenManagerMonitor monitor) {
+		for (int i=0; i<monitorsCnt; i++) if (monitors[i] == monitor) return;
+		if (monitorsCnt < MAX_MANAGERS) {
+			monitors[monitorsCnt] = monitor;
+			monitorsCnt += 1;
+		}
+	}
+
+	private void record(long frameNanos) {
+		int bucket = (int) (frameNanos / (long) (BUCKET_MS * 1000000));
+		if (bucket >= BUCKETS) bucket = BUCKETS-1;
+
+		if (windowSize == WINDOW) histogram[window[windowHead]] -= 1;
+		else windowSize += 1;
+
+		window[windowHead] = bucket;
+		histogram[bucket] += 1;
+		windowHead = (windowHead + 1) % WINDOW;
+	}
+
+	private void refresh() {
+		int frames = Math.max(1, sampledFrames);
+		float updateMs = sampledUpdateNanos / 1000000f / frames;
+		float frameMs = sampledNanos / 1000000f / frames;
+
+		text.setLength(0);
+		text.append("frame p50 ");
+		TextFormat.appendFixed(text, getFrameTimePercentile(0.50f), 2);
+		text.append("  p95 ");
+		TextFormat.appendFixed(text, getFrameTimePercentile(0.95f), 2);
+		text.append("  p99 ");
+		TextFormat.appendFixed(text, getFrameTimePercentile(0.99f), 2);
+		text.append(" ms\n");
+
+		text.append("update ");
+		TextFormat.appendFixed(text, updateMs, 2);
+		text.append("  render ");
+		TextFormat.appendFixed(text, frameMs - updateMs, 2);
+		text.append(" ms\n");
+
+		text.append("render calls ").append(sampledRenderCalls / frames);
+		text.append("  saved ").append(sampledSavedFlushes / frames);
+		text.append("  alloc ");
+		if (sampledAlloc < 0) text.append("n/a");
+		else text.append(sampledAlloc / frames).append(" B/frame");
+
+		text.append("\ndrawn ").append(sampledDrawn / frames);
+		text.append("  culled ").append(sampledCulled / frames);
+
+		for (int i=0; i<monitorsCnt; i++) {
+			TweenManagerMonitor monitor = monitors[i];
+			text.append('\n').append(monitor.getName()).append(": ");
+			text.append(monitor.getTweensCount()).append(" tweens, ");
+			text.append(monitor.getTimelinesCount()).append(" timelines");
+		}
+
+		sampledFrames = sampledRenderCalls = sampledSavedFlushes = 0;
+		sampledDrawn = sampledCulled = 0;
+		sampledNanos = sampledUpdateNanos = sampledAlloc = 0;
+	}
+
+	private void layout(BitmapFont font) {
+		if (textLayout == null || textLayout.getFont() != font) {
+			textLayout = new BitmapFontCache(font, font.usesIntegerPositions());
+			shadowLayout = new BitmapFontCache(font, font.usesIntegerPositions());
+			textLayout.setColor(1, 1, 0, 1);
+			shadowLayout.setColor(0, 0, 0, 1);
+		}
+
+		textLayout.setMultiLineText(text, 0, 0);
+		shadowLayout.setMultiLineText(text, 0, 0);
+	}
+
+	private void draw() {
+		if (hudBatch == null) hudBatch = new SpriteBatch();
+
+		int w = Gdx.graphics.getWidth();
+		int h = Gdx.graphics.getHeight();
+		shadowLayout.setPosition(11, h - 11);
+		textLayout.setPosition(10, h - 10);
+
+		hudBatch.getProjectionMatrix().setToOrtho2D(0, 0, w, h);
+		hudBatch.begin();
+		shadowLayout.draw(hudBatch);
+		textLayout.draw(hudBatch);
+		hudBatch.end();
+	}
+
+	private static long allocatedBytes() {
+		if (allocatedBytesHandle == null) return Long.MIN_VALUE;
+		try {
+			return (long) allocatedBytesHandle.invokeExact();
+		} catch (Throwable ex) {
+			return Long.MIN_VALUE;
+		}
+	}
+
+	/**
+	 * ThreadMXBean.getThreadAllocatedBytes(id) allocates about 800 bytes per
+	 * call, which would show up in the measure: getCurrentThreadAllocatedBytes()
+	 * (Java 14+) does not. It is looked up by name since the demo targets
+	 * Java 11, where the first one is used instead.
+	 */
+	private static MethodHandle findAllocatedBytesHandle() {
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (!(bean instanceof com.sun.management.ThreadMXBean)) return null;
+
+		MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+		Class<?> type = com.sun.management.ThreadMXBean.class;
+		try {
+			return lookup.findVirtual(type, "getCurrentThreadAllocatedBytes", MethodType.methodType(long.class)).bindTo(bean);
+		} catch (NoSuchMethodException ex) {
+		} catch (IllegalAccessException ex) {
+		}
+
+		try {
+			MethodHandle handle = lookup.findVirtual(type, "getThreadAllocatedBytes", MethodType.methodType(long.class, long.class)).bindTo(bean);
+			return MethodHandles.insertArguments(handle, 0, Thread.currentThread().getId());
+		} catch (NoSuchMethodException ex) {
+			return null;
+		} catch (IllegalAccessException ex) {
+			return null;
+		}
+	}
+
+	private static class MonitorStepper implements FixedStepClock.Stepper {
+		private TweenManagerMonitor monitor;
+
+		@Override
+		public void step(float delta) {
+			monitor.update(delta);
+		}
+	}
+}
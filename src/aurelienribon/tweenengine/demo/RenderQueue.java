@@ -0,0 +1,335 @@
+package aurelienribon.tweenengine.demo;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.BitmapFontCache;
+import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Matrix4;
+import java.util.Arrays;
+
+/**
+ * Collects the sprites, regions, texts and text layouts of a frame, and draws them with
+ * as few SpriteBatch flushes as possible.
+ * <p>
+ *
+ * Every item is added with the current layer, projection and blending of
+ * the queue. On {@link #end(SpriteBatch)}, items are sorted by layer, then
+ * by projection, blending and texture, and drawn in a single begin/end pair:
+ * the batch only flushes when one of these states changes. Items sharing
+ * the same state keep their order.
+ * <p>
+ *
+ * Layers are drawn one over the other. Inside a layer, items with different
+ * states may be reordered, so they should not overlap: anything which must
+ * be drawn over something else goes in a higher layer.
+ * <pre>
+ * queue.begin();
+ * queue.setLayer(0);
+ * queue.setProjection(camera.combined);
+ * queue.setBlending(true);
+ * queue.add(sprite);
+ * queue.addText(font, "Hello", x, y);
+ * queue.end(batch);
+ * </pre>
+ *
+ * Items are pooled, nothing is allocated once the queue has grown to the
+ * size of a frame.
+ */
+public class RenderQueue {
+	private static final int SPRITE = 0;
+	private static final int REGION = 1;
+	private static final int TEXT = 2;
+	private static final int WRAPPED_TEXT = 3;
+	private static final int LAYOUT = 4;
+
+	private static final int MAX_LAYERS = 1 << 10;
+	private static final int MAX_PROJECTIONS = 1 << 4;
+	private static final int MAX_TEXTURES = 1 << 12;
+	private static final int MAX_ITEMS = 1 << 20;
+
+	private Item[] items = new Item[64];
+	private long[] keys = new long[64];
+	private int size;
+
+	private final Matrix4[] projections = new Matrix4[MAX_PROJECTIONS];
+	private int projectionsCnt;
+	private Texture[] textures = new Texture[16];
+	private int texturesCnt;
+
+	private int layer;
+	private int projection = -1;
+	private boolean isBlendingEnabled = true;
+	private boolean isDrawing;
+
+	private int lastProjection = -1;
+	private int lastTexture = -1;
+	private boolean wasBlendingEnabled;
+	private int submittedRuns;
+
+	private int flushesCnt;
+	private int savedFlushesCnt;
+	private int totalSavedFlushes;
+
+	public RenderQueue() {
+		for (int i=0; i<items.length; i++) items[i] = new Item();
+	}
+
+	// -------------------------------------------------------------------------
+	// Public API
+	// -------------------------------------------------------------------------
+
+	public void begin() {
+		if (isDrawing) throw new RuntimeException("RenderQueue.end must be called before begin");
+		isDrawing = true;
+		layer = 0;
+		projection = -1;
+		isBlendingEnabled = true;
+		lastProjection = lastTexture = -1;
+		submittedRuns = 0;
+	}
+
+	public void setLayer(int layer) {
+		if (layer < 0 || layer >= MAX_LAYERS) throw new RuntimeException("Layer out of range: " + layer);
+		this.layer = layer;
+	}
+
+	/**
+	 * Sets the projection of the next items. The matrix is read when the
+	 * queue is drawn, not copied: it can be shared, but should not change
+	 * before end().
+	 */
+	public void setProjection(Matrix4 projection) {
+		this.projection = indexOf(projection);
+	}
+
+	public void setBlending(boolean isBlendingEnabled) {
+		this.isBlendingEnabled = isBlendingEnabled;
+	}
+
+	/**
+	 * Adds a sprite, drawn with its state at the time end() is called.
+	 */
+	public void add(Sprite sprite) {
+		Item item = push(SPRITE, sprite.getTexture());
+		item.object = sprite;
+	}
+
+	public void add(TextureRegion region, float x, float y, float width, float height) {
+		Item item = push(REGION, region.getTexture());
+		item.object = region;
+		item.x = x;
+		item.y = y;
+		item.width = width;
+		item.height = height;
+	}
+
+	/**
+	 * Adds a text, drawn with the current color of the font.
+	 */
+	public void addText(BitmapFont font, CharSequence text, float x, float y) {
+		addText(TEXT, font, text, x, y, 0);
+	}
+
+	/**
+	 * Adds a text wrapped at the given width, drawn with the current color
+	 * of the font.
+	 */
+	public void addWrappedText(BitmapFont font, CharSequence text, float x, float y, float wrapWidth) {
+		addText(WRAPPED_TEXT, font, text, x, y, wrapWidth);
+	}
+
+	/**
+	 * Adds a laid out text (see {@link TextLayouts}), drawn with its position
+	 * and color at the time end() is called.
+	 */
+	public void add(BitmapFontCache layout) {
+		Item item = push(LAYOUT, layout.getFont().getRegion().getTexture());
+		item.object = layout;
+	}
+
+	/**
+	 * Sorts the items of the frame, and draws them with the given batch.
+	 */
+	public void end(SpriteBatch batch) {
+		if (!isDrawing) throw new RuntimeException("RenderQueue.begin must be called before end");
+		isDrawing = false;
+
+		flushesCnt = 0;
+		if (size > 0) {
+			Arrays.sort(keys, 0, size);
+			draw(batch);
+		}
+
+		savedFlushesCnt = submittedRuns - flushesCnt;
+		totalSavedFlushes += savedFlushesCnt;
+
+		for (int i=0; i<size; i++) items[i].clear();
+		Arrays.fill(projections, 0, projectionsCnt, null);
+		Arrays.fill(textures, 0, texturesCnt, null);
+		size = projectionsCnt = texturesCnt = 0;
+	}
+
+	/**
+	 * Gets the number of state changes of the last drawn frame, which is the
+	 * number of flushes made by the batch (unless its buffer got full).
+	 */
+	public int getFlushesCount() {
+		return flushesCnt;
+	}
+
+	/**
+	 * Gets the number of flushes saved by sorting in the last drawn frame,
+	 * compared to drawing the items in the order they were added.
+	 */
+	public int getSavedFlushesCount() {
+		return savedFlushesCnt;
+	}
+
+	/**
+	 * Gets the number of flushes saved since the last reset.
+	 */
+	public int getTotalSavedFlushes() {
+		return totalSavedFlushes;
+	}
+
+	public void resetTotalSavedFlushes() {
+		totalSavedFlushes = 0;
+	}
+
+	// -------------------------------------------------------------------------
+	// Helpers
+	// -------------------------------------------------------------------------
+
+	private void addText(int kind, BitmapFont font, CharSequence text, float x, float y, float wrapWidth) {
+		Item item = push(kind, font.getRegion().getTexture());
+		Color color = font.getColor();
+		item.object = font;
+		item.text = text;
+		item.x = x;
+		item.y = y;
+		item.width = wrapWidth;
+		item.r = color.r;
+		item.g = color.g;
+		item.b = color.b;
+		item.a = color.a;
+	}
+
+	private Item push(int kind, Texture texture) {
+		if (!isDrawing) throw new RuntimeException("RenderQueue.begin must be called before adding items");
+		if (projection < 0) throw new RuntimeException("Set a projection before adding items");
+		if (size == MAX_ITEMS) throw new RuntimeException("Too many items in a frame");
+
+		if (size == items.length) {
+			items = Arrays.copyOf(items, size * 2);
+			keys = Arrays.copyOf(keys, size * 2);
+			for (int i=size; i<items.length; i++) items[i] = new Item();
+		}
+
+		int tex = indexOf(texture);
+		if (size == 0 || projection != lastProjection || tex != lastTexture || isBlendingEnabled != wasBlendingEnabled) submittedRuns += 1;
+		lastProjection = projection;
+		lastTexture = tex;
+		wasBlendingEnabled = isBlendingEnabled;
+
+		Item item = items[size];
+		item.kind = kind;
+		keys[size] = ((long) layer << 37)
+			| ((long) projection << 33)
+			| ((long) (isBlendingEnabled ? 1 : 0) << 32)
+			| ((long) tex << 20)
+			| size;
+		size += 1;
+		return item;
+	}
+
+	private void draw(SpriteBatch batch) {
+		int proj = getProjection(keys[0]);
+		boolean blending = isBlendingEnabled(keys[0]);
+		batch.setProjectionMatrix(projections[proj]);
+		if (blending) batch.enableBlending();
+		else batch.disableBlending();
+		batch.begin();
+
+		long lastState = -1;
+		for (int i=0; i<size; i++) {
+			long key = keys[i];
+			long state = (key >>> 20) & ((1L << 17) - 1);
+
+			if (state != lastState) {
+				if (getProjection(key) != proj) {
+					proj = getProjection(key);
+					batch.setProjectionMatrix(projections[proj]);
+				}
+				if (isBlendingEnabled(key) != blending) {
+					blending = isBlendingEnabled(key);
+					if (blending) batch.enableBlending();
+					else batch.disableBlending();
+				}
+				lastState = state;
+				flushesCnt += 1;
+			}
+
+			Item item = items[(int) (key & (MAX_ITEMS - 1))];
+			switch (item.kind) {
+				case SPRITE:
+					((Sprite) item.object).draw(batch);
+					break;
+				case REGION:
+					batch.draw((TextureRegion) item.object, item.x, item.y, item.width, item.height);
+					break;
+				case TEXT:
+				case WRAPPED_TEXT:
+					BitmapFont font = (BitmapFont) item.object;
+					font.setColor(item.r, item.g, item.b, item.a);
+					if (item.kind == TEXT) font.draw(batch, item.text, item.x, item.y);
+					else font.drawWrapped(batch, item.text, item.x, item.y, item.width);
+					break;
+				case LAYOUT:
+					((BitmapFontCache) item.object).draw(batch);
+					break;
+			}
+		}
+
+		batch.end();
+		batch.enableBlending();
+	}
+
+	private int indexOf(Matrix4 projection) {
+		for (int i=0; i<projectionsCnt; i++) if (projections[i] == projection) return i;
+		if (projectionsCnt == MAX_PROJECTIONS) throw new RuntimeException("Too many projections in a frame");
+		projections[projectionsCnt] = projection;
+		return projectionsCnt++;
+	}
+
+	private int indexOf(Texture texture) {
+		for (int i=0; i<texturesCnt; i++) if (textures[i] == texture) return i;
+		if (texturesCnt == MAX_TEXTURES) throw new RuntimeException("Too many textures in a frame");
+		if (texturesCnt == textures.length) textures = Arrays.copyOf(textures, texturesCnt * 2);
+		textures[texturesCnt] = texture;
+		return texturesCnt++;
+	}
+
+	private static int getProjection(long key) {
+		return (int) ((key >>> 33) & (MAX_PROJECTIONS - 1));
+	}
+
+	private static boolean isBlendingEnabled(long key) {
+		return ((key >>> 32) & 1) != 0;
+	}
+
+	private static class Item {
+		private int kind;
+		private Object object;
+		private CharSequence text;
+		private float x, y, width, height;
+		private float r, g, b, a;
+
+		public void clear() {
+			object = null;
+			text = null;
+		}
+	}
+}
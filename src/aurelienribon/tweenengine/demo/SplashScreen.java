@@ -1,6 +1,9 @@
 package aurelienribon.tweenengine.demo;
 
 import aurelienribon.accessors.SpriteAccessor;
+import aurelienribon.managers.FixedStepClock;
+import aurelienribon.monitoring.TweenMonitors;
+import aurelienribon.timelines.BakedTimeline;
 import aurelienribon.tweenengine.Timeline;
 import aurelienribon.tweenengine.Tween;
 import aurelienribon.tweenengine.TweenCallback;
@@ -13,14 +16,16 @@ import aurelienribon.tweenengine.equations.Quint;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.InputAdapter;
 import com.badlogic.gdx.InputProcessor;
+import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.GL10;
 import com.badlogic.gdx.graphics.GLCommon;
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.g2d.Sprite;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Vector3;
+import java.io.IOException;
+import java.io.InputStream;
 
 /**
  * @author Aurelien Ribon | http://www.aurelienribon.com/
@@ -33,10 +38,15 @@ import com.badlogic.gdx.math.Vector3;
  */
 public class SplashScreen {
 	private static final int PX_PER_METER = 400;	// 转化单位
+	private static final float BAKE_RATE = 60;
+	public static final String BAKED_INTRO_FILE = "data/splash/intro.baked";
+
+	private static BakedTimeline bakedIntro;
 
 	private final OrthographicCamera camera = new OrthographicCamera();
 	private final SpriteBatch batch = new SpriteBatch();
 	private final TweenManager tweenManager = new TweenManager();
+	private final FixedStepClock clock = new FixedStepClock(tweenManager);	// 以固定步长(120Hz)推进tweenManager
 	private final TweenCallback callback;
 	private final Sprite universal;
 	private final Sprite tween;
@@ -50,8 +60,9 @@ public class SplashScreen {
 
 	public SplashScreen(TweenCallback callback) {
 		this.callback = callback;
+		PerfHud.inst().register(batch);
 
-		TextureAtlas atlas = Assets.inst().get("data/splash/pack", TextureAtlas.class);
+		AtlasIndex atlas = Assets.inst().getIndex("data/splash/pack");
 		universal = atlas.createSprite("universal");
 		tween = atlas.createSprite("tween");
 		engine = atlas.createSprite("engine");
@@ -60,7 +71,7 @@ public class SplashScreen {
 		powered = atlas.createSprite("powered");
 		gdx = atlas.createSprite("gdxblur");
 		veil = atlas.createSprite("white");
-		gdxTex = atlas.findRegion("gdx");
+		gdxTex = atlas.getRegion(atlas.getHandle("gdx"));
 
 		float wpw = 1f;
 		float wph = wpw * Gdx.graphics.getHeight() / Gdx.graphics.getWidth();
@@ -99,7 +110,7 @@ public class SplashScreen {
 		// 如果想同时执行,用beginParallel()和end()
 		// 可以通过pushPause(-0.3f)将两个tween同时执行
 		// 可以通过pushPause(0.5f)推迟动画开始执行的时间
-		Timeline.createSequence()
+		Timeline intro = Timeline.createSequence()
 			.push(Tween.set(tween, SpriteAccessor.POS_XY).targetRelative(-1, 0))		// 设置tween,相对于原来的位置,移动(-1,0). 在最左侧.
 			.push(Tween.set(engine, SpriteAccessor.POS_XY).targetRelative(1, 0))		// 设置engine,相对于原来的位置,移动(1,0). 在最右侧.
 			.push(Tween.set(universal, SpriteAccessor.POS_XY).targetRelative(0, 0.5f))	// 设置universal,相对于原来的位置,移动(0,0.5f). 在上侧.
@@ -144,19 +155,57 @@ public class SplashScreen {
 				.push(Tween.to(powered, SpriteAccessor.POS_XY, 0.5f).targetRelative(1, 0).ease(Back.IN))
 				.push(Tween.to(gdx, SpriteAccessor.POS_XY, 0.5f).targetRelative(1, 0).ease(Back.IN))
 			.end()
-			.pushPause(0.3f)
+			.pushPause(0.3f);
 
+		bake(intro).createTween()
 			.setCallback(callback)	// 设置TweenCallback,动画都走完之后,会调用TweenCallbck的onEvent方法.
 			.start(tweenManager);
 	}
 
+	/**
+	 * Gets the baked version of the intro timeline. The intro is baked once,
+	 * or loaded from {@link #BAKED_INTRO_FILE} if it is up to date, and bound
+	 * to the sprites of each new splash screen.
+	 */
+	private static BakedTimeline bake(Timeline intro) {
+		if (bakedIntro == null) {
+			FileHandle file = Gdx.files.internal(BAKED_INTRO_FILE);
+			if (file.exists()) {
+				try {
+					InputStream is = file.read();
+					try {bakedIntro = BakedTimeline.load(is);}
+					finally {is.close();}
+				} catch (IOException ex) {
+					// baked below
+				}
+			}
+		}
+
+		BakedTimeline baked = bakedIntro != null ? bakedIntro.bind(intro) : null;
+		if (baked != null) {
+			intro.free();
+			return baked;
+		}
+
+		return bakedIntro = BakedTimeline.bake(intro, BAKE_RATE);
+	}
+
+	/**
+	 * Gets the baked intro, null until a splash screen is created.
+	 */
+	public static BakedTimeline getBakedIntro() {
+		return bakedIntro;
+	}
+
 	public void dispose() {
 		tweenManager.killAll();	// 动画管理器kill掉
+		PerfHud.inst().unregister(batch);
+		TweenMonitors.remove(tweenManager);
 		batch.dispose();	// SpriteBatch dispose掉
 	}
 
 	public void render() {
-		tweenManager.update(Gdx.graphics.getDeltaTime());
+		PerfHud.inst().update(clock, Gdx.graphics.getDeltaTime(), "Splash");
 
 		if (gdx.getRotation() > 360*15-20)
 			gdx.setRegion(gdxTex);	// 设置新的textrue(静态的gdx图标)
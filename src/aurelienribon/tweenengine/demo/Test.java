@@ -1,9 +1,9 @@
 package aurelienribon.tweenengine.demo;
 
 import aurelienribon.accessors.SpriteAccessor;
-import aurelienribon.tweenengine.BaseTween;
+import aurelienribon.managers.FixedStepClock;
+import aurelienribon.monitoring.SceneTransitionEvent;
 import aurelienribon.tweenengine.Tween;
-import aurelienribon.tweenengine.TweenCallback;
 import aurelienribon.tweenengine.TweenManager;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.InputProcessor;
@@ -12,13 +12,12 @@ import com.badlogic.gdx.graphics.GL10;
 import com.badlogic.gdx.graphics.GLCommon;
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.BitmapFontCache;
 import com.badlogic.gdx.graphics.g2d.Sprite;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.math.Matrix4;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.math.Vector3;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Random;
 
 /**
@@ -31,17 +30,29 @@ import java.util.Random;
  * Test抽象类,其他Scene都继承这个Test
  */
 public abstract class Test {
+	// Layers of the render queue. Tests add their own items in LAYER_OVERLAY.
+	protected static final int LAYER_BACKGROUND = 0;
+	protected static final int LAYER_SPRITES = 1;
+	protected static final int LAYER_OVERLAY = 2;
+	protected static final int LAYER_INFO_BACK = 3;
+	protected static final int LAYER_INFO_TEXT = 4;
+	protected static final int LAYER_VEIL = 5;
+
 	private final TweenManager tweenManager = new TweenManager();
-	private final TextureAtlas atlas;	// atlas 大地图; 这个是gdx带的类.
+	private final FixedStepClock clock = new FixedStepClock(tweenManager);	// 以固定步长(120Hz)推进tweenManager
+	private final AtlasIndex atlas;		// atlas 大地图的索引: region的名字在加载时就被解析成了整数handle
+	private final int[] spriteHandles;	// sprite1 ~ sprite4 的handle
 	private final Sprite background;	// 背景精灵
 	private final Sprite veil;			// veil:隐蔽;藏. 点返回的时候,出现的白色背景
 	private final Sprite infoBack;		// 介绍信息的back背景
-	private final List<Sprite> dots = new ArrayList<Sprite>(50);	// 点,轨迹点
-	private boolean[] useDots;			// 有多少个sprite,就有多少个useDots. useDots表示该精灵当前是否有点轨迹
+	private final TrailEmitter dots;	// 点,轨迹点
 	private Callback callback;			// 回调.下面有该类的实现
 
 	protected final OrthographicCamera camera = new OrthographicCamera();	// 正交摄像机
 	protected final SpriteBatch batch = new SpriteBatch();	// 批处理的Sprite
+	protected final RenderQueue queue = new RenderQueue();	// 按layer和状态排序后,交给batch绘制
+	protected final ViewCuller culler = new ViewCuller();	// 跳过camera视口外的sprites和轨迹点
+	protected final Matrix4 screenProjection = new Matrix4();	// 屏幕坐标系的投影矩阵
 	protected final Random rand = new Random();
 	protected final BitmapFont font;						// bitmapFont 字体
 	// wph / wpw == Gdx.graphics.getHeight() / Gdx.graphics.getWidth(); viewport的宽高比 和 实际窗口的宽高比 是相同的.
@@ -51,10 +62,16 @@ public abstract class Test {
 	protected Sprite[] sprites;
 
 	public Test() {
-		atlas = Assets.inst().get("data/test/pack", TextureAtlas.class);	// ??? pack文件是怎么制作的,让gkx引擎下的TextureAtlas完美解析
-		background = atlas.createSprite("background");	// 用TextureAtlas创建sprite
+		atlas = Assets.inst().getIndex("data/test/pack");	// ??? pack文件是怎么制作的,让gkx引擎下的TextureAtlas完美解析
+		background = atlas.createSprite("background");	// 用atlas的索引创建sprite
 		veil = atlas.createSprite("white");
 		infoBack = atlas.createSprite("white");
+		dots = new TrailEmitter(atlas.getRegion(atlas.getHandle("dot")), 256);
+		spriteHandles = new int[4];
+		for (int i=0; i<spriteHandles.length; i++) spriteHandles[i] = atlas.getHandle("sprite" + (i+1));
+		PerfHud.inst().register(batch);
+		PerfHud.inst().register(queue);
+		PerfHud.inst().register(culler);
 
 		// 根据窗口宽度选取不同的字体
 		int w = Gdx.graphics.getWidth();
@@ -72,7 +89,7 @@ public abstract class Test {
 	public abstract InputProcessor getInput();		// InputProcessor 输入事件
 	protected abstract void initializeOverride();
 	protected abstract void disposeOverride();		// dispose:部署;摆布
-	protected abstract void renderOverride();
+	protected abstract void renderOverride();		// 在queue.begin和queue.end之间调用: layer为LAYER_OVERLAY, 投影为camera.combined
 
 	// -------------------------------------------------------------------------
 	// Public API
@@ -91,9 +108,13 @@ public abstract class Test {
 	}
 
 	public void initialize() {
+		SceneTransitionEvent event = new SceneTransitionEvent();
+		event.begin();
+
 		// 若当前为演示状态,则走演示状态下的逻辑和init
 		if (isCustomDisplay()) {
 			initializeOverride();
+			event.commit(getTitle(), SceneTransitionEvent.INITIALIZE);
 			return;
 		}
 
@@ -124,15 +145,21 @@ public abstract class Test {
 
 		Tween.set(veil, SpriteAccessor.OPACITY).target(1).start(tweenManager);		//1.向tweenManager里放tween(动画) 2.set veil's opacity = 1
 		Tween.to(veil, SpriteAccessor.OPACITY, 0.5f).target(0).start(tweenManager);	//将veil's opacity经过0,5f的时间,从原来的1变为0(target设置的0)
+
+		event.commit(getTitle(), SceneTransitionEvent.INITIALIZE);
 	}
 
 	public void dispose() {
+		SceneTransitionEvent event = new SceneTransitionEvent();
+		event.begin();
+
 		tweenManager.killAll();
-		dots.clear();
+		clock.reset();
+		dots.setSources(new Sprite[0]);
 		sprites = null;
-		useDots = null;
 
 		disposeOverride();
+		event.commit(getTitle(), SceneTransitionEvent.DISPOSE);
 	}
 
 	public void render() {
@@ -144,13 +171,8 @@ public abstract class Test {
 
 		// update
 
-		tweenManager.update(Gdx.graphics.getDeltaTime());
-
-		for (int i=0; i<dots.size(); i++) {
-			if (dots.get(i).getScaleX() < 0.1f) {
-				dots.remove(i);
-			}
-		}
+		PerfHud.inst().update(clock, Gdx.graphics.getDeltaTime(), getTitle());
+		dots.update(Gdx.graphics.getDeltaTime());
 
 		// render
 
@@ -167,16 +189,24 @@ public abstract class Test {
 //		System.out.println("w = " + w + " h = " + h); // 800 480 这是实际的屏幕宽高
 
 //		System.out.println("1 viewportWidth = " + camera.viewportWidth + " viewportHeight = " + camera.viewportHeight);
-		// 先给batch设置投影矩阵,再begin,end
-		batch.setProjectionMatrix(camera.combined);
-		batch.begin();
-		batch.disableBlending();
-		background.draw(batch);
-		batch.enableBlending();
-		for (int i=0; i<dots.size(); i++) dots.get(i).draw(batch);
-		for (int i=0; i<sprites.length; i++) sprites[i].draw(batch);
-		batch.end();
+		// 所有的绘制都先放进queue里,queue.end时排序后一次性交给batch绘制
+		screenProjection.setToOrtho2D(0, 0, w, h);	// 若想在屏幕上显示字体这种,平面效果,可以将setOrtho的参数设置为0,0,屏幕的宽,屏幕的高.
+													// 这样opengl里的w和h就和屏幕的w和h一样了.
+		culler.update(camera);
+		queue.begin();
+		queue.setLayer(LAYER_BACKGROUND);
+		queue.setProjection(camera.combined);
+		queue.setBlending(false);
+		queue.add(background);
+
+		queue.setLayer(LAYER_SPRITES);
+		queue.setBlending(true);
+		dots.draw(queue, culler);
+		for (int i=0; i<sprites.length; i++) {
+			if (culler.isVisible(sprites[i])) queue.add(sprites[i]);	// 视口外的sprite不绘制
+		}
 
+		queue.setLayer(LAYER_OVERLAY);
 		renderOverride(); // 编程技巧:父类有个render()方法和renderOverride()方法,
 						  // 父类在render方法里调用一下renderOverride方法.同时将renderOverride方法写成protected abstract类型的.
 						  // 子类通过继承父类,实现自己的renderOverride.即可以实现公共的render和自己特有的render.
@@ -184,32 +214,29 @@ public abstract class Test {
 		// 绘制 透明的背景 和 背景上白色的字体
 		if (getInfo() != null) {
 			int padding = 15;	// 上下左右的间距
-			BitmapFont.TextBounds bs = font.getWrappedBounds(getInfo(), w - padding*2);	// getInfo():要显示的String. w-padding*2:字符串所占的宽度. wrap:包裹
+			BitmapFontCache info = TextLayouts.inst().getWrapped(font, getInfo(), w - padding*2);	// getInfo():要显示的String. w-padding*2:字符串所占的宽度. wrap:包裹
+			BitmapFont.TextBounds bs = info.getBounds();	// 排版结果被缓存,每帧不再重新计算
 			infoBack.setSize(w, bs.height + padding*2);	// w:屏幕的宽. bs.height+padding*2:字符串所占的高+上下两间距
-			font.setColor(Color.WHITE);
-
-			// 先给batch设置投影矩阵,再begin,end
-			batch.getProjectionMatrix().setToOrtho2D(0, 0, w, h);	// 若想在屏幕上显示字体这种,平面效果,可以将setOrtho的参数设置为0,0,屏幕的宽,屏幕的高.
-																	// 这样opengl里的w和h就和屏幕的w和h一样了.
-			batch.begin();
-			infoBack.draw(batch);
-			font.drawWrapped(batch, getInfo(), padding, bs.height + padding, w - padding*2);	// 第一个参数是batch, 第二个参数是字符串,
-																								// 第三个参数是指x, 第四个参数是y, 第四个参数是字符串所占的宽度
-			batch.end();
+			info.setPosition(padding, bs.height + padding);
+			info.setColor(Color.WHITE);
+
+			queue.setProjection(screenProjection);
+			queue.setBlending(true);
+			queue.setLayer(LAYER_INFO_BACK);
+			queue.add(infoBack);
+			queue.setLayer(LAYER_INFO_TEXT);
+			queue.add(info);
 		}
 
 		// 只有在点开test的时候,才绘制veil
 		if (veil.getColor().a > 0.1f) {
-//			System.out.println("draw");
-			// 先给batch设置投影矩阵,在begin,end
-			batch.setProjectionMatrix(camera.combined);
-			batch.begin();
-			veil.draw(batch);
-			batch.end();
+			queue.setLayer(LAYER_VEIL);
+			queue.setProjection(camera.combined);
+			queue.setBlending(true);
+			queue.add(veil);
 		}
-//		else {
-//			System.out.println("no draw");
-//		}
+
+		queue.end(batch);
 	}
 
 	// -------------------------------------------------------------------------
@@ -235,20 +262,20 @@ public abstract class Test {
 	/**
 	 * 创建cnt个sprite
 	 * sprite是4个精灵随机创建的
-	 * useDots属性初始为false
+	 * 轨迹点初始为关闭
 	 * @param cnt
      */
 	protected void createSprites(int cnt) {
 		sprites = new Sprite[cnt];
-		useDots = new boolean[cnt];
 
 		for (int i=0; i<cnt; i++) {
-			int idx = rand.nextInt(400)/100 + 1;	// 随机生成[1-4]之间的数
-			sprites[i] = atlas.createSprite("sprite" + idx);
+			int idx = rand.nextInt(400)/100;	// 随机生成[0-3]之间的数
+			sprites[i] = atlas.createSprite(spriteHandles[idx]);	// 复制sprite原型,不再按名字查找
 			sprites[i].setSize(1f, 1f * sprites[i].getHeight() / sprites[i].getWidth());
 			sprites[i].setOrigin(sprites[i].getWidth()/2, sprites[i].getHeight()/2);
-			useDots[i] = false;
 		}
+
+		dots.setSources(sprites);
 	}
 
 	/**
@@ -262,21 +289,15 @@ public abstract class Test {
 	}
 
 	/**
-	 * 开启sprite's dots属性,并tween call动画
+	 * 开启sprite's dots属性,每0.02s在sprite的中心留下一个轨迹点
 	 * @param spriteId
      */
 	protected void enableDots(int spriteId) {
-		useDots[spriteId] = true;
-
-		Tween.call(dotCallback)
-			.delay(0.02f)
-			.repeat(-1, 0.02f)
-			.setUserData(spriteId)
-			.start(tweenManager);	// ??? 不是很明白call函数
+		dots.enable(spriteId);
 	}
 
 	protected void disableDots(int spriteId) {
-		useDots[spriteId] = false;
+		dots.disable(spriteId);
 	}
 
 	private final Vector2 v2 = new Vector2();	// 表示opengl的世界坐标
@@ -294,32 +315,6 @@ public abstract class Test {
 		return v2.set(v3.x, v3.y);
 	}
 
-	// -------------------------------------------------------------------------
-	// Helpers
-	// -------------------------------------------------------------------------
-
-	private final TweenCallback dotCallback = new TweenCallback() {
-		@Override
-		public void onEvent(int type, BaseTween source) {
-			int spriteId = (Integer) source.getUserData();
-
-			if (useDots[spriteId] == false) source.kill();
-			Sprite sp = sprites[spriteId];
-
-			Sprite dot = atlas.createSprite("dot");
-			dot.setSize(0.2f, 0.2f);	// 宽高设置为0.2,0.2
-			dot.setOrigin(0.1f, 0.1f);	// origin原点设置为0.1,0.1(中心点) 注意:这个setOrigin影响的只是精灵的缩放和旋转时的原点,translate的原点还是左下角.(看setOrigin方法的api)
-
-			// 设置到sprite的中心位置
-			dot.setPosition(sp.getX(), sp.getY());
-			dot.translate(sp.getWidth()/2, sp.getHeight()/2);
-			dot.translate(-dot.getWidth()/2, -dot.getHeight()/2);
-
-			dots.add(dot);
-			Tween.to(dot, SpriteAccessor.SCALE_XY, 1.0f).target(0, 0).start(tweenManager);	// 设置dot's scale的x,y为0,0
-		}
-	};
-
 	// -------------------------------------------------------------------------
 	// Dummy
 	// -------------------------------------------------------------------------
@@ -0,0 +1,34 @@
+package aurelienribon.tweenengine.demo;
+
+/**
+ * Writes numbers in reusable StringBuilders, without the garbage of
+ * String.format() and StringBuilder.append(float). Keep a StringBuilder per
+ * dynamic text, clear it with setLength(0) and rewrite it when the value
+ * changes: as long as its capacity is large enough, nothing is allocated,
+ * and it can be drawn as a CharSequence.
+ */
+public class TextFormat {
+	private static final int[] POWERS_OF_TEN = {1, 10, 100, 1000, 10000, 100000, 1000000};
+
+	/**
+	 * Appends a value with the given number of decimals (0 to 6), rounded
+	 * half up.
+	 */
+	public static StringBuilder appendFixed(StringBuilder sb, float value, int decimals) {
+		if (decimals < 0 || decimals >= POWERS_OF_TEN.length) throw new RuntimeException("Decimals out of range: " + decimals);
+		int scale = POWERS_OF_TEN[decimals];
+		long units = Math.round((double) value * scale);
+		if (units < 0) {
+			sb.append('-');
+			units = -units;
+		}
+
+		sb.append(units / scale);
+		if (decimals == 0) return sb;
+
+		sb.append('.');
+		long fraction = units % scale;
+		for (int p=scale/10; p>1 && fraction < p; p/=10) sb.append('0');
+		return sb.append(fraction);
+	}
+}
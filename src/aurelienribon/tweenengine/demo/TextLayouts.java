@@ -0,0 +1,147 @@
+package aurelienribon.tweenengine.demo;
+
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.BitmapFontCache;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache of laid out texts, keyed by (font, text, wrap width).
+ * <p>
+ *
+ * Laying out a wrapped text measures every word, and drawing it computes the
+ * vertices of every glyph again: static texts should be laid out once. Each
+ * layout is a BitmapFontCache holding the positioned glyph vertices, laid out
+ * at (0,0). Moving it with setPosition() translates the vertices, and
+ * setColor() only rewrites their color when it changed. The font scale is
+ * part of the key, so scaling a font gives new layouts.
+ * <p>
+ *
+ * A layout is shared by every caller asking for the same key: it can be
+ * drawn at one position and with one color per frame. The least recently
+ * used layouts are dropped past {@link #CAPACITY} entries.
+ * <p>
+ *
+ * Never dispose the layouts: BitmapFontCache.dispose() disposes their font.
+ */
+public class TextLayouts {
+	public static final int CAPACITY = 64;
+
+	private static TextLayouts instance;
+	public static TextLayouts inst() {
+		if (instance == null) instance = new TextLayouts();
+		return instance;
+	}
+
+	// -------------------------------------------------------------------------
+
+	private final Map<Key, BitmapFontCache> layouts = new LinkedHashMap<Key, BitmapFontCache>(CAPACITY, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Key, BitmapFontCache> eldest) {
+			return size() > CAPACITY;
+		}
+	};
+
+	private final Key lookupKey = new Key();
+	private int hitsCnt;
+	private int missesCnt;
+
+	private TextLayouts() {}
+
+	// -------------------------------------------------------------------------
+	// Public API
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Gets the layout of a single line text.
+	 */
+	public BitmapFontCache get(BitmapFont font, String text) {
+		return get(font, text, -1);
+	}
+
+	/**
+	 * Gets the layout of a text wrapped at the given width.
+	 */
+	public BitmapFontCache getWrapped(BitmapFont font, String text, float wrapWidth) {
+		if (wrapWidth < 0) throw new RuntimeException("Wrap width can't be negative");
+		return get(font, text, wrapWidth);
+	}
+
+	public void clear() {
+		layouts.clear();
+	}
+
+	public int getSize() {
+		return layouts.size();
+	}
+
+	public int getHitsCount() {
+		return hitsCnt;
+	}
+
+	public int getMissesCount() {
+		return missesCnt;
+	}
+
+	// -------------------------------------------------------------------------
+	// Helpers
+	// -------------------------------------------------------------------------
+
+	private BitmapFontCache get(BitmapFont font, String text, float wrapWidth) {
+		lookupKey.set(font, text, wrapWidth);
+		BitmapFontCache layout = layouts.get(lookupKey);
+		if (layout != null) {
+			hitsCnt += 1;
+			return layout;
+		}
+
+		missesCnt += 1;
+		layout = new BitmapFontCache(font, font.usesIntegerPositions());
+		if (wrapWidth < 0) layout.setText(text, 0, 0);
+		else layout.setWrappedText(text, 0, 0, wrapWidth);
+
+		Key key = new Key();
+		key.set(font, text, wrapWidth);
+		layouts.put(key, layout);
+		return layout;
+	}
+
+	private static class Key {
+		private BitmapFont font;
+		private String text;
+		private float wrapWidth;
+		private float scaleX, scaleY;
+		private int hash;
+
+		public void set(BitmapFont font, String text, float wrapWidth) {
+			this.font = font;
+			this.text = text;
+			this.wrapWidth = wrapWidth;
+			this.scaleX = font.getScaleX();
+			this.scaleY = font.getScaleY();
+
+			int h = System.identityHashCode(font);
+			h = h * 31 + text.hashCode();
+			h = h * 31 + Float.floatToIntBits(wrapWidth);
+			h = h * 31 + Float.floatToIntBits(scaleX);
+			h = h * 31 + Float.floatToIntBits(scaleY);
+			this.hash = h;
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key)) return false;
+			Key other = (Key) obj;
+			return font == other.font
+				&& wrapWidth == other.wrapWidth
+				&& scaleX == other.scaleX
+				&& scaleY == other.scaleY
+				&& text.equals(other.text);
+		}
+	}
+}
@@ -1,6 +1,7 @@
 package aurelienribon.tweenengine.demo;
 
 import aurelienribon.accessors.SpriteAccessor;
+import aurelienribon.timelines.BakedTimeline;
 import aurelienribon.tweenengine.Timeline;
 import aurelienribon.tweenengine.Tween;
 import aurelienribon.tweenengine.TweenCallback;
@@ -11,9 +12,8 @@ import aurelienribon.tweenengine.primitives.MutableFloat;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.BitmapFontCache;
 import com.badlogic.gdx.graphics.g2d.Sprite;
-import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 
 /**
  * @author Aurelien Ribon | http://www.aurelienribon.com/
@@ -24,60 +24,117 @@ import com.badlogic.gdx.graphics.g2d.TextureAtlas;
  * 表示Launcher界面下,一个一个的小方块
  */
 public class Tile {
+	public static final int LAYERS_CNT = 3;
+	private static final float BAKE_RATE = 60;
+
 	private final float x, y;				// 卡片的位置
+	private final float w, h;				// 卡片的大小
 	private final Test test;				// 卡片对应的test
-	private final Sprite sprite;			// 背景(一个纯蓝色的方块)
-	private final Sprite interactiveIcon;	// 卡片左上角的手指
-	private final Sprite veil;				// 过场动画所需的veil(面纱)
+	private final AtlasIndex atlas;
+	private final int spriteHandle, interactiveIconHandle, veilHandle;
 	private final OrthographicCamera camera;// 正交摄像机
 	private final BitmapFont font;			// 写卡片上的文字
 	private final TweenManager tweenManager;// tile所需的tweenManager
 	private final MutableFloat textOpacity = new MutableFloat(1);	// 字体透明度
 
-	public Tile(float x, float y, float w, float h, Test test, TextureAtlas atlas, OrthographicCamera camera, BitmapFont font, TweenManager tweenManager) {
+	// 以下在load()时创建, unload()时释放
+	private Sprite sprite;			// 背景(一个纯蓝色的方块)
+	private Sprite interactiveIcon;	// 卡片左上角的手指
+	private Sprite veil;				// 过场动画所需的veil(面纱)
+	private BakedTimeline bakedMaximize;
+	private BakedTimeline bakedMinimize;
+	private float bakedCameraX, bakedCameraY;
+	private boolean isMaximizeBaked;
+
+	/**
+	 * Creates an unloaded tile: its sprites are only created by
+	 * {@link #load(boolean)}, when its row scrolls into view.
+	 */
+	public Tile(float x, float y, float w, float h, Test test, AtlasIndex atlas, OrthographicCamera camera, BitmapFont font, TweenManager tweenManager) {
 		this.x = x;
 		this.y = y;
+		this.w = w;
+		this.h = h;
 		this.test = test;
+		this.atlas = atlas;
 		this.camera = camera;
 		this.font = font;
 		this.tweenManager = tweenManager;
-//		System.out.println("x = " + x + " y = " + y);
 
-		this.sprite = test.getImageName() != null ? atlas.createSprite(test.getImageName()) : atlas.createSprite("tile");
-		this.interactiveIcon = atlas.createSprite("interactive");
-		this.veil = atlas.createSprite("white");
+		this.spriteHandle = atlas.getHandle(test.getImageName() != null ? test.getImageName() : "tile");
+		this.interactiveIconHandle = atlas.getHandle("interactive");
+		this.veilHandle = atlas.getHandle("white");
+	}
+
+	/**
+	 * Creates the sprites of the tile. If the tile is not at rest, it waits
+	 * out of the screen, on the right, for {@link #enter(float)}.
+	 */
+	public void load(boolean isAtRest) {
+		if (isLoaded()) return;
+
+		sprite = atlas.createSprite(spriteHandle);
+		interactiveIcon = atlas.createSprite(interactiveIconHandle);
+		veil = atlas.createSprite(veilHandle);
+		textOpacity.setValue(1);
 
 		sprite.setSize(w, h);
 		sprite.setOrigin(w/2, h/2);
-		sprite.setPosition(x + camera.viewportWidth, y);	// sprite的x值加camera.viewportWidth,是为了将其位置右移到屏幕外面,方便做动画使用
-//		System.out.println("sprite : x = " + sprite.getX() + " y = " + sprite.getY());
+		sprite.setPosition(isAtRest ? x : x + camera.viewportWidth, y);	// sprite的x值加camera.viewportWidth,是为了将其位置右移到屏幕外面,方便做动画使用
 
 		interactiveIcon.setSize(w/10, w/10 * interactiveIcon.getHeight() / interactiveIcon.getWidth());
 		interactiveIcon.setPosition(x+w - interactiveIcon.getWidth() - w/50, y+h - interactiveIcon.getHeight() - w/50);	// 手指的位置都放在了各自应该在的位置,并没有放在屏幕的右边
-																														// 其color的a设置为了0.初始状态看不到
-		interactiveIcon.setColor(1, 1, 1, 0);	// 设置opacity:a = 0. 初始状态是看不到的
+		interactiveIcon.setColor(1, 1, 1, isAtRest ? 1 : 0);	// 未到位时opacity:a = 0. 初始状态是看不到的
 
 		veil.setSize(w, h);
 		veil.setOrigin(w/2, h/2);
 		veil.setPosition(x, y);		// veil也在自己应该在的位置上,并没有放在屏幕的右边
 		veil.setColor(1, 1, 1, 0);	// 设置opacity:a = 0. 初始状态是看不到的
-//		System.out.println("veil : x = " + veil.getX() + " y = " + veil.getY());
 	}
 
-	public void draw(SpriteBatch batch) {
-		sprite.draw(batch);
-		if (test.getInput() != null) interactiveIcon.draw(batch);	// 若test界面里没有Input事件,则手指图标不绘制; 若test界面里有Input事件,则手指图标绘制.
+	/**
+	 * Kills the tweens of the tile and releases its sprites, and the
+	 * timelines baked on them.
+	 */
+	public void unload() {
+		if (!isLoaded()) return;
+
+		tweenManager.killTarget(sprite);
+		tweenManager.killTarget(interactiveIcon);
+		tweenManager.killTarget(veil);
+		tweenManager.killTarget(textOpacity);
+
+		sprite = interactiveIcon = veil = null;
+		bakedMaximize = bakedMinimize = null;
+		isMaximizeBaked = false;
+	}
+
+	public boolean isLoaded() {
+		return sprite != null;
+	}
+
+	/**
+	 * Adds the tile to the queue, in {@link #LAYERS_CNT} layers starting at
+	 * the given one:
+	 * the sprite and icon, then the text, then the veil.
+	 */
+	public void draw(RenderQueue queue, int layer) {
+		queue.setLayer(layer);
+		queue.add(sprite);
+		if (test.getInput() != null) queue.add(interactiveIcon);	// 若test界面里没有Input事件,则手指图标不绘制; 若test界面里有Input事件,则手指图标绘制.
 
 		// 计算出 (sprite.getWidth() - sprite.getWidth()/10) 对应的实际屏幕宽度
 		float wrapW = (sprite.getWidth() - sprite.getWidth()/10) * Gdx.graphics.getWidth() / camera.viewportWidth;
 
-		font.setColor(1, 1, 1, textOpacity.floatValue());
-		font.drawWrapped(batch, test.getTitle(),
-			sprite.getX() + sprite.getWidth()/20,
-			sprite.getY() + sprite.getHeight()*19/20,
-			wrapW);
+		// 标题只排版一次,之后只移动位置和修改透明度
+		BitmapFontCache title = TextLayouts.inst().getWrapped(font, test.getTitle(), wrapW);
+		title.setPosition(sprite.getX() + sprite.getWidth()/20, sprite.getY() + sprite.getHeight()*19/20);
+		title.setColor(1, 1, 1, textOpacity.floatValue());
+		queue.setLayer(layer + 1);
+		queue.add(title);
 
-		if (veil.getColor().a > 0.1f) veil.draw(batch);
+		queue.setLayer(layer + 2);
+		if (veil.getColor().a > 0.1f) queue.add(veil);
 	}
 
 	/**
@@ -99,10 +156,39 @@ public class Tile {
 	 * @param callback
      */
 	public void maximize(TweenCallback callback) {
+		boolean isAtRest = isAtRest();
+
 		tweenManager.killTarget(interactiveIcon);
 		tweenManager.killTarget(textOpacity);
 		tweenManager.killTarget(sprite);
 
+		// The baked timelines start from the rest state, as left by enter()
+		// and minimize(). If the tile is still moving, play the real ones.
+		isMaximizeBaked = isAtRest;
+		if (isAtRest) {
+			bake();
+			bakedMaximize.createTween().setUserData(this).setCallback(callback).start(tweenManager);
+		} else {
+			createMaximize().setUserData(this).setCallback(callback).start(tweenManager);
+		}
+	}
+
+	/**
+	 * 从test界面返回到launcher界面时,会调到这个方法.
+	 * @param callback
+     */
+	public void minimize(TweenCallback callback) {
+		tweenManager.killTarget(sprite);
+		tweenManager.killTarget(textOpacity);
+
+		if (isMaximizeBaked) {
+			bakedMinimize.createTween().setUserData(this).setCallback(callback).start(tweenManager);
+		} else {
+			createMinimize().setUserData(this).setCallback(callback).start(tweenManager);
+		}
+	}
+
+	private Timeline createMaximize() {
 		// tx,ty 表示的位置是sprite/veil的中心点在整个屏幕的中心位置上.
 		float tx = camera.position.x - sprite.getWidth()/2;
 		float ty = camera.position.y - sprite.getHeight()/2;
@@ -110,7 +196,7 @@ public class Tile {
 		float sx = camera.viewportWidth / sprite.getWidth();
 		float sy = camera.viewportHeight / sprite.getHeight();
 
-		Timeline.createSequence()
+		return Timeline.createSequence()
 			.push(Tween.set(veil, SpriteAccessor.POS_XY).target(tx, ty))	// veil的中心点设置在屏幕的中心
 			.push(Tween.set(veil, SpriteAccessor.SCALE_XY).target(sx, sy))	// veil放大至整个屏幕
 			.beginParallel()
@@ -124,21 +210,11 @@ public class Tile {
 				.push(Tween.to(sprite, SpriteAccessor.POS_XY, 0.5f).target(tx, ty).ease(Quad.IN))		// sprite's position x,y经过0.5s变为tx,ty
 			.end()
 			.pushPause(-0.3f)
-			.push(Tween.to(veil, SpriteAccessor.OPACITY, 0.7f).target(1))	// veil渐渐显现
-			.setUserData(this)
-			.setCallback(callback)
-			.start(tweenManager);
+			.push(Tween.to(veil, SpriteAccessor.OPACITY, 0.7f).target(1));	// veil渐渐显现
 	}
 
-	/**
-	 * 从test界面返回到launcher界面时,会调到这个方法.
-	 * @param callback
-     */
-	public void minimize(TweenCallback callback) {
-		tweenManager.killTarget(sprite);
-		tweenManager.killTarget(textOpacity);
-
-		Timeline.createSequence()
+	private Timeline createMinimize() {
+		return Timeline.createSequence()
 			.push(Tween.set(veil, SpriteAccessor.OPACITY).target(0))	// veil隐藏
 			.beginParallel()
 				.push(Tween.to(sprite, SpriteAccessor.SCALE_XY, 0.3f).target(1, 1).ease(Quad.OUT))	// sprite's scale慢慢变为1,1
@@ -148,21 +224,48 @@ public class Tile {
 				// 文字和手指慢慢显现
 				.push(Tween.to(textOpacity, 0, 0.3f).target(1))
 				.push(Tween.to(interactiveIcon, SpriteAccessor.OPACITY, 0.3f).target(1))
-			.end()
-			.setUserData(this)
-			.setCallback(callback)
-			.start(tweenManager);
+			.end();
 	}
 
 	/**
-	 * 判断触控点是否在卡片内
-	 * @param x
-	 * @param y
-     * @return
-     */
-	public boolean isOver(float x, float y) {
-		return sprite.getX() <= x && x <= sprite.getX() + sprite.getWidth()
-			&& sprite.getY() <= y && y <= sprite.getY() + sprite.getHeight();
+	 * Bakes maximize() from the rest state, and minimize() from the end of
+	 * maximize(). The maximized position depends on the camera, so they are
+	 * baked again when it was scrolled.
+	 */
+	private void bake() {
+		if (bakedMaximize != null && bakedCameraX == camera.position.x && bakedCameraY == camera.position.y) return;
+		bakedCameraX = camera.position.x;
+		bakedCameraY = camera.position.y;
+
+		bakedMaximize = BakedTimeline.bake(createMaximize(), BAKE_RATE);
+		bakedMaximize.apply(bakedMaximize.getDuration());
+		bakedMinimize = BakedTimeline.bake(createMinimize(), BAKE_RATE);
+		bakedMinimize.apply(bakedMinimize.getDuration());
+	}
+
+	private boolean isAtRest() {
+		return !tweenManager.containsTarget(sprite)
+			&& !tweenManager.containsTarget(interactiveIcon)
+			&& !tweenManager.containsTarget(textOpacity)
+			&& sprite.getX() == x && sprite.getY() == y
+			&& sprite.getScaleX() == 1 && sprite.getScaleY() == 1
+			&& interactiveIcon.getColor().a > 0.99f
+			&& textOpacity.floatValue() == 1
+			&& veil.getColor().a < 0.01f;
+	}
+
+	/**
+	 * Gets the x coordinate of the rest position.
+	 */
+	public float getX() {
+		return x;
+	}
+
+	/**
+	 * Gets the y coordinate of the rest position.
+	 */
+	public float getY() {
+		return y;
 	}
 
 	public Test getTest() {
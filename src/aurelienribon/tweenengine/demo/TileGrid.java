@@ -0,0 +1,142 @@
+package aurelienribon.tweenengine.demo;
+
+/**
+ * Uniform grid index of the launcher tiles.
+ * <p>
+ *
+ * Tiles are laid out in rows of {@link #getColumnsCount()} cells, from the
+ * top-left one. The cell of a world position, and so the tile under a touch,
+ * is found with two divisions instead of a scan of every tile, and the rows
+ * crossed by the camera viewport are found the same way:
+ * <pre>
+ * int firstRow = grid.getRowAt(camera.position.y + camera.viewportHeight/2);
+ * int lastRow = grid.getRowAt(camera.position.y - camera.viewportHeight/2);
+ * </pre>
+ *
+ * Rows are numbered downwards. getRowAt() is not clamped: positions above
+ * the first row give negative rows, and positions below the last row give
+ * rows past {@link #getRowsCount()}.
+ */
+public class TileGrid {
+	private final Tile[] tiles;
+	private final int columnsCnt;
+	private final int rowsCnt;
+	private final float left, top;
+	private final float tileW, tileH;
+	private final float padding;
+
+	/**
+	 * @param left The x coordinate of the left side of the first column.
+	 * @param top The y coordinate of the top side of the first row.
+	 */
+	public TileGrid(int tilesCnt, int columnsCnt, float left, float top, float tileW, float tileH, float padding) {
+		if (columnsCnt <= 0) throw new RuntimeException("The grid needs at least one column");
+		this.tiles = new Tile[tilesCnt];
+		this.columnsCnt = columnsCnt;
+		this.rowsCnt = (tilesCnt + columnsCnt - 1) / columnsCnt;
+		this.left = left;
+		this.top = top;
+		this.tileW = tileW;
+		this.tileH = tileH;
+		this.padding = padding;
+	}
+
+	// -------------------------------------------------------------------------
+	// Public API
+	// -------------------------------------------------------------------------
+
+	public void set(int idx, Tile tile) {
+		tiles[idx] = tile;
+	}
+
+	public Tile get(int idx) {
+		return tiles[idx];
+	}
+
+	/**
+	 * Gets the tile at the given cell, or null if the cell is empty or out of
+	 * the grid.
+	 */
+	public Tile get(int row, int col) {
+		if (row < 0 || row >= rowsCnt || col < 0 || col >= columnsCnt) return null;
+		int idx = row * columnsCnt + col;
+		return idx < tiles.length ? tiles[idx] : null;
+	}
+
+	/**
+	 * Gets the tile whose rest bounds contain the given world position, or
+	 * null if the position is in the padding between tiles or out of the
+	 * grid.
+	 */
+	public Tile getTileAt(float x, float y) {
+		float cellX = x - left;
+		float cellY = top - y;
+		if (cellX < 0 || cellY < 0) return null;
+
+		int col = (int) (cellX / (tileW + padding));
+		int row = (int) (cellY / (tileH + padding));
+		if (cellX - col * (tileW + padding) > tileW) return null;
+		if (cellY - row * (tileH + padding) > tileH) return null;
+		return get(row, col);
+	}
+
+	/**
+	 * Gets the row crossing the given world height. Padding under a row
+	 * belongs to it.
+	 */
+	public int getRowAt(float y) {
+		return (int) Math.floor((top - y) / (tileH + padding));
+	}
+
+	public int getRowOf(int idx) {
+		return idx / columnsCnt;
+	}
+
+	public int getColumnOf(int idx) {
+		return idx % columnsCnt;
+	}
+
+	/**
+	 * Gets the row of a tile, from its rest position.
+	 */
+	public int getRowOf(Tile tile) {
+		return getRowAt(tile.getY() + tileH/2);
+	}
+
+	/**
+	 * Gets the column of a tile, from its rest position.
+	 */
+	public int getColumnOf(Tile tile) {
+		return (int) Math.floor((tile.getX() + tileW/2 - left) / (tileW + padding));
+	}
+
+	/**
+	 * Gets the x coordinate of the left side of the tiles of the given column.
+	 */
+	public float getTileX(int col) {
+		return left + col * (tileW + padding);
+	}
+
+	/**
+	 * Gets the y coordinate of the bottom side of the tiles of the given row.
+	 */
+	public float getTileY(int row) {
+		return top - tileH - row * (tileH + padding);
+	}
+
+	public int getTilesCount() {
+		return tiles.length;
+	}
+
+	public int getRowsCount() {
+		return rowsCnt;
+	}
+
+	public int getColumnsCount() {
+		return columnsCnt;
+	}
+
+	public float getRowHeight() {
+		return tileH + padding;
+	}
+}
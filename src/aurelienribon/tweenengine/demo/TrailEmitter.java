@@ -0,0 +1,150 @@
+package aurelienribon.tweenengine.demo;
+
+import aurelienribon.tweenengine.equations.Quad;
+import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+/**
+ * Leaves a trail of dots behind sprites.
+ * <p>
+ *
+ * Every emitting sprite drops a dot at its center every {@link #PERIOD}
+ * seconds. Dots shrink from their spawn time with a Quad.INOUT easing over
+ * {@link #LIFETIME} seconds, and die when their scale goes below
+ * {@link #MIN_SCALE}. They all live as long, so the oldest dots are always
+ * the first to die: they are kept in a fixed ring buffer of primitive arrays,
+ * spawned at its head and expired from its tail. Updating and drawing cost
+ * O(live dots) and allocate nothing. When the buffer is full, the oldest dot
+ * is dropped.
+ */
+public class TrailEmitter {
+	public static final float PERIOD = 0.02f;
+	public static final float LIFETIME = 1.0f;
+	public static final float MIN_SCALE = 0.1f;
+	public static final float SIZE = 0.2f;
+	private static final float REBASE_TIME = 1000;
+
+	private final TextureRegion region;
+	private final int capacity;
+	private final float[] xs;
+	private final float[] ys;
+	private final float[] spawnTimes;
+	private int tail;
+	private int count;
+	private float time;
+
+	private Sprite[] sources = new Sprite[0];
+	private boolean[] emitting = new boolean[0];
+	private float[] accumulators = new float[0];
+
+	public TrailEmitter(TextureRegion region, int capacity) {
+		this.region = region;
+		this.capacity = capacity;
+		this.xs = new float[capacity];
+		this.ys = new float[capacity];
+		this.spawnTimes = new float[capacity];
+	}
+
+	// -------------------------------------------------------------------------
+	// Public API
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Sets the sprites able to emit dots, and clears every dot. Emission is
+	 * disabled for all of them.
+	 */
+	public void setSources(Sprite[] sprites) {
+		clear();
+		if (sources.length != sprites.length) {
+			emitting = new boolean[sprites.length];
+			accumulators = new float[sprites.length];
+		}
+		sources = sprites;
+	}
+
+	public void enable(int spriteId) {
+		emitting[spriteId] = true;
+		accumulators[spriteId] = 0;
+	}
+
+	public void disable(int spriteId) {
+		emitting[spriteId] = false;
+	}
+
+	public void clear() {
+		tail = count = 0;
+		time = 0;
+		for (int i=0; i<emitting.length; i++) emitting[i] = false;
+	}
+
+	public void update(float delta) {
+		time += delta;
+		if (time > REBASE_TIME) rebase();
+
+		while (count > 0 && getScale(tail) < MIN_SCALE) {
+			tail = (tail + 1) % capacity;
+			count -= 1;
+		}
+
+		for (int i=0; i<sources.length; i++) {
+			if (!emitting[i]) continue;
+			accumulators[i] += delta;
+			while (accumulators[i] >= PERIOD) {
+				accumulators[i] -= PERIOD;
+				Sprite sp = sources[i];
+				spawn(sp.getX() + sp.getWidth()/2, sp.getY() + sp.getHeight()/2);
+			}
+		}
+	}
+
+	/**
+	 * Adds the dots seen by the given culler to the queue.
+	 */
+	public void draw(RenderQueue queue, ViewCuller culler) {
+		for (int i=0, idx=tail; i<count; i++, idx=(idx+1) % capacity) {
+			float size = SIZE * getScale(idx);
+			float x = xs[idx] - size/2;
+			float y = ys[idx] - size/2;
+			if (culler.isVisible(x, y, size, size)) queue.add(region, x, y, size, size);
+		}
+	}
+
+	public int getCount() {
+		return count;
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	// -------------------------------------------------------------------------
+	// Helpers
+	// -------------------------------------------------------------------------
+
+	private void spawn(float x, float y) {
+		if (count == capacity) {
+			tail = (tail + 1) % capacity;
+			count -= 1;
+		}
+
+		int head = (tail + count) % capacity;
+		xs[head] = x;
+		ys[head] = y;
+		spawnTimes[head] = time;
+		count += 1;
+	}
+
+	/**
+	 * Moves the time origin back to 0, before the float clock loses its
+	 * precision.
+	 */
+	private void rebase() {
+		for (int i=0, idx=tail; i<count; i++, idx=(idx+1) % capacity) spawnTimes[idx] -= time;
+		time = 0;
+	}
+
+	private float getScale(int idx) {
+		float t = (time - spawnTimes[idx]) / LIFETIME;
+		return t >= 1 ? 0 : 1 - Quad.INOUT.compute(t);
+	}
+}
@@ -0,0 +1,127 @@
+package aurelienribon.tweenengine.demo;
+
+import aurelienribon.managers.ThrottledTweenManager;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.math.Rectangle;
+
+/**
+ * Skips the items out of the viewport of an OrthographicCamera.
+ * <p>
+ *
+ * Set the camera of the frame with {@link #update(OrthographicCamera)}, then
+ * test every item before adding it to the queue:
+ * <pre>
+ * culler.update(camera);
+ * if (culler.isVisible(sprite)) queue.add(sprite);
+ * </pre>
+ *
+ * Sprites are tested with their bounding rectangle, which covers their
+ * rotation and scale. The camera is expected not to be rotated. Every test
+ * counts an item as drawn or culled for the current frame; the counts of
+ * the previous frames are added to totals, read by the PerfHud.
+ * <p>
+ *
+ * The culler is also the {@link ThrottledTweenManager.Visibility} of the
+ * sprites it sees, to throttle the tweens of off-screen sprites. Asking for
+ * the visibility of a target is not counted.
+ */
+public class ViewCuller implements ThrottledTweenManager.Visibility {
+	private float left, right, bottom, top;
+	private int drawnCnt;
+	private int culledCnt;
+	private int totalDrawn;
+	private int totalCulled;
+
+	// -------------------------------------------------------------------------
+	// Public API
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Starts a new frame, seen by the given camera. The camera should be up
+	 * to date.
+	 */
+	public void update(OrthographicCamera camera) {
+		totalDrawn += drawnCnt;
+		totalCulled += culledCnt;
+		drawnCnt = culledCnt = 0;
+
+		float halfW = camera.viewportWidth * camera.zoom / 2;
+		float halfH = camera.viewportHeight * camera.zoom / 2;
+		left = camera.position.x - halfW;
+		right = camera.position.x + halfW;
+		bottom = camera.position.y - halfH;
+		top = camera.position.y + halfH;
+	}
+
+	/**
+	 * Tells if the given sprite, rotated and scaled, overlaps the viewport.
+	 */
+	public boolean isVisible(Sprite sprite) {
+		return count(overlaps(sprite.getBoundingRectangle()));
+	}
+
+	/**
+	 * Tells if the given rectangle overlaps the viewport.
+	 */
+	public boolean isVisible(float x, float y, float width, float height) {
+		return count(overlaps(x, y, width, height));
+	}
+
+	@Override
+	public boolean isOnScreen(Object target) {
+		return !(target instanceof Sprite) || overlaps(((Sprite) target).getBoundingRectangle());
+	}
+
+	/**
+	 * Gets the number of items found visible in the current frame.
+	 */
+	public int getDrawnCount() {
+		return drawnCnt;
+	}
+
+	/**
+	 * Gets the number of items culled in the current frame.
+	 */
+	public int getCulledCount() {
+		return culledCnt;
+	}
+
+	/**
+	 * Gets the number of items found visible in the frames ended since the
+	 * last reset.
+	 */
+	public int getTotalDrawn() {
+		return totalDrawn;
+	}
+
+	/**
+	 * Gets the number of items culled in the frames ended since the last
+	 * reset.
+	 */
+	public int getTotalCulled() {
+		return totalCulled;
+	}
+
+	public void resetTotals() {
+		totalDrawn = totalCulled = 0;
+	}
+
+	// -------------------------------------------------------------------------
+	// Helpers
+	// -------------------------------------------------------------------------
+
+	private boolean count(boolean isVisible) {
+		if (isVisible) drawnCnt += 1;
+		else culledCnt += 1;
+		return isVisible;
+	}
+
+	private boolean overlaps(Rectangle rect) {
+		return overlaps(rect.x, rect.y, rect.width, rect.height);
+	}
+
+	private boolean overlaps(float x, float y, float width, float height) {
+		return x < right && x + width > left && y < top && y + height > bottom;
+	}
+}
@@ -1,10 +1,14 @@
 package aurelienribon.tweenengine.demo.tests;
 
 import aurelienribon.accessors.SpriteAccessor;
+import aurelienribon.equations.LutEquation;
+import aurelienribon.managers.FixedStepClock;
+import aurelienribon.managers.ThrottledTweenManager;
 import aurelienribon.tweenengine.Timeline;
 import aurelienribon.tweenengine.Tween;
-import aurelienribon.tweenengine.TweenManager;
 import aurelienribon.tweenengine.demo.Assets;
+import aurelienribon.tweenengine.demo.AtlasIndex;
+import aurelienribon.tweenengine.demo.PerfHud;
 import aurelienribon.tweenengine.demo.Test;
 import aurelienribon.tweenengine.equations.Back;
 import aurelienribon.tweenengine.equations.Bounce;
@@ -21,13 +25,13 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.InputAdapter;
 import com.badlogic.gdx.InputProcessor;
 import com.badlogic.gdx.graphics.g2d.Sprite;
-import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 
 /**
  * @author Aurelien Ribon | http://www.aurelienribon.com
  */
 public class Functions extends Test {
-	private final TweenManager tweenManager = new TweenManager();
+	private final ThrottledTweenManager tweenManager = new ThrottledTweenManager();
+	private final FixedStepClock clock = new FixedStepClock(tweenManager);
 	private Sprite functions1;
 	private Sprite functions2;
 	private Sprite functions3;
@@ -56,7 +60,7 @@ public class Functions extends Test {
 
 	@Override
 	protected void initializeOverride() {
-		TextureAtlas atlas = Assets.inst().get("data/test/pack", TextureAtlas.class);
+		AtlasIndex atlas = Assets.inst().getIndex("data/test/pack");
 		functions1 = atlas.createSprite("functions1");	// 指的是四个词 quad cubic quart quint
 		functions2 = atlas.createSprite("functions2");	// 指的是三个词 circ sine expo linear
 		functions3 = atlas.createSprite("functions3");	// 指的是三个词 back elastic bounce
@@ -80,28 +84,29 @@ public class Functions extends Test {
 		center(sprites[2], -2, +0);
 		center(sprites[3], -2, -1);
 
+		tweenManager.setVisibility(culler);	// 离开视口一段时间的sprites, 降低其tween的更新频率
+		tweenManager.setOverwrite(true);	// 新的timelines开始时, 接管旧timelines的sprites
 		startFunctions1(0.5f);
 	}
 
 	@Override
 	protected void disposeOverride() {
 		tweenManager.killAll();
+		clock.reset();
 	}
 
 	@Override
 	protected void renderOverride() {
-		tweenManager.update(Gdx.graphics.getDeltaTime());
-
-		batch.setProjectionMatrix(camera.combined);
-		batch.begin();
-		if (functions1.getColor().a > 0.1f) functions1.draw(batch);
-		if (functions2.getColor().a > 0.1f) functions2.draw(batch);
-		if (functions3.getColor().a > 0.1f) functions3.draw(batch);
-		batch.end();
+		PerfHud.inst().update(clock, Gdx.graphics.getDeltaTime(), getTitle());
+
+		if (functions1.getColor().a > 0.1f) queue.add(functions1);
+		if (functions2.getColor().a > 0.1f) queue.add(functions2);
+		if (functions3.getColor().a > 0.1f) queue.add(functions3);
 	}
 
 	private void reset(float duration) {
-		tweenManager.killAll();
+		// 还在delay中的timelines还没开始, overwrite接管不到它们, 要先kill掉
+		for (int i=0; i<sprites.length; i++) tweenManager.killTarget(sprites[i], SpriteAccessor.CPOS_XY);
 
 		Timeline.createParallel()
 			.push(Tween.set(sprites[0], SpriteAccessor.CPOS_XY).target(-2, +2))
@@ -142,8 +147,8 @@ public class Functions extends Test {
 
 		Timeline.createParallel()
 			.push(Tween.to(sprites[0], SpriteAccessor.CPOS_XY, 1.0f).targetRelative(6, 0).ease(Circ.INOUT))
-			.push(Tween.to(sprites[1], SpriteAccessor.CPOS_XY, 1.0f).targetRelative(6, 0).ease(Sine.INOUT))
-			.push(Tween.to(sprites[2], SpriteAccessor.CPOS_XY, 1.0f).targetRelative(6, 0).ease(Expo.INOUT))
+			.push(Tween.to(sprites[1], SpriteAccessor.CPOS_XY, 1.0f).targetRelative(6, 0).ease(LutEquation.wrap(Sine.INOUT)))
+			.push(Tween.to(sprites[2], SpriteAccessor.CPOS_XY, 1.0f).targetRelative(6, 0).ease(LutEquation.wrap(Expo.INOUT)))
 			.push(Tween.to(sprites[3], SpriteAccessor.CPOS_XY, 1.0f).targetRelative(6, 0).ease(Linear.INOUT))
 			.repeat(-1, 1.0f)
 			.delay(delay)
@@ -163,7 +168,7 @@ public class Functions extends Test {
 
 		Timeline.createParallel()
 			.push(Tween.to(sprites[0], SpriteAccessor.CPOS_XY, 1.0f).targetRelative(6, 0).ease(Back.OUT))
-			.push(Tween.to(sprites[1], SpriteAccessor.CPOS_XY, 1.0f).targetRelative(6, 0).ease(Elastic.OUT))
+			.push(Tween.to(sprites[1], SpriteAccessor.CPOS_XY, 1.0f).targetRelative(6, 0).ease(LutEquation.wrap(Elastic.OUT)))
 			.push(Tween.to(sprites[2], SpriteAccessor.CPOS_XY, 1.0f).targetRelative(6, 0).ease(Bounce.OUT))
 			.repeat(-1, 1.0f)
 			.delay(delay)
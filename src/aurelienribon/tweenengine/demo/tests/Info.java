@@ -1,18 +1,23 @@
 package aurelienribon.tweenengine.demo.tests;
 
 import aurelienribon.accessors.SpriteAccessor;
+import aurelienribon.managers.FixedStepClock;
 import aurelienribon.tweenengine.Tween;
 import aurelienribon.tweenengine.TweenManager;
+import aurelienribon.tweenengine.demo.PerfHud;
 import aurelienribon.tweenengine.demo.Test;
+import aurelienribon.tweenengine.demo.TextLayouts;
 import aurelienribon.tweenengine.equations.Linear;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.InputProcessor;
+import com.badlogic.gdx.graphics.g2d.BitmapFontCache;
 
 /**
  * @author Aurelien Ribon | http://www.aurelienribon.com
  */
 public class Info extends Test {
 	private final TweenManager tweenManager = new TweenManager();
+	private final FixedStepClock clock = new FixedStepClock(tweenManager);
 	private final String msg;
 
 	public Info() {
@@ -58,17 +63,19 @@ public class Info extends Test {
 	@Override
 	protected void disposeOverride() {
 		tweenManager.killAll();
+		clock.reset();
 	}
 
 	@Override
 	protected void renderOverride() {
-		tweenManager.update(Gdx.graphics.getDeltaTime());
+		PerfHud.inst().update(clock, Gdx.graphics.getDeltaTime(), getTitle());
 
 		int w = Gdx.graphics.getWidth();
 		int h = Gdx.graphics.getHeight();
-		batch.getProjectionMatrix().setToOrtho2D(0, 0, w, h);
-		batch.begin();
-		font.drawWrapped(batch, msg, 20, h-20, w-40);
-		batch.end();
+		BitmapFontCache layout = TextLayouts.inst().getWrapped(font, msg, w-40);
+		layout.setPosition(20, h-20);
+		layout.setColor(font.getColor());
+		queue.setProjection(screenProjection);
+		queue.add(layout);
 	}
 }
@@ -1,8 +1,9 @@
 package aurelienribon.tweenengine.demo.tests;
 
 import aurelienribon.accessors.SpriteAccessor;
-import aurelienribon.tweenengine.Tween;
-import aurelienribon.tweenengine.TweenManager;
+import aurelienribon.managers.BulkSpriteTweenManager;
+import aurelienribon.managers.FixedStepClock;
+import aurelienribon.tweenengine.demo.PerfHud;
 import aurelienribon.tweenengine.demo.Test;
 import aurelienribon.tweenengine.equations.Cubic;
 import com.badlogic.gdx.Gdx;
@@ -12,7 +13,8 @@ import com.badlogic.gdx.InputProcessor;
  * @author Aurelien Ribon | http://www.aurelienribon.com
  */
 public class Repetitions extends Test {
-	private final TweenManager tweenManager = new TweenManager();
+	private final BulkSpriteTweenManager tweenManager = new BulkSpriteTweenManager();
+	private final FixedStepClock clock = new FixedStepClock(tweenManager);
 
 	@Override
 	public String getTitle() {
@@ -42,28 +44,29 @@ public class Repetitions extends Test {
 		center(sprites[0], -3, +1);
 		center(sprites[1], -3, -1);
 
-		Tween.to(sprites[0], SpriteAccessor.CPOS_XY, 0.7f)
+		tweenManager.to(sprites[0], SpriteAccessor.CPOS_XY, 0.7f)
 			.ease(Cubic.INOUT)
 			.target(3, 1)
 			.repeat(-1, 0.3f)	// repeat的意思是按原来的动画重复
 			.delay(0.5f)
-			.start(tweenManager);
+			.start();
 
-		Tween.to(sprites[1], SpriteAccessor.CPOS_XY, 0.7f)
+		tweenManager.to(sprites[1], SpriteAccessor.CPOS_XY, 0.7f)
 			.ease(Cubic.INOUT)
 			.target(3, -1)
 			.repeatYoyo(-1, 0.3f)	// repeatYoyo的意思是按相反的动画重复
 			.delay(0.5f)
-			.start(tweenManager);
+			.start();
 	}
 
 	@Override
 	protected void disposeOverride() {
 		tweenManager.killAll();
+		clock.reset();
 	}
 
 	@Override
 	protected void renderOverride() {
-		tweenManager.update(Gdx.graphics.getDeltaTime());
+		PerfHud.inst().update(clock, Gdx.graphics.getDeltaTime(), getTitle());
 	}
 }
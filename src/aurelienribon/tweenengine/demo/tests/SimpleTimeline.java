@@ -1,9 +1,11 @@
 package aurelienribon.tweenengine.demo.tests;
 
 import aurelienribon.accessors.SpriteAccessor;
+import aurelienribon.managers.FixedStepClock;
 import aurelienribon.tweenengine.Timeline;
 import aurelienribon.tweenengine.Tween;
 import aurelienribon.tweenengine.TweenManager;
+import aurelienribon.tweenengine.demo.PerfHud;
 import aurelienribon.tweenengine.demo.Test;
 import aurelienribon.tweenengine.equations.Back;
 import aurelienribon.tweenengine.equations.Cubic;
@@ -16,6 +18,7 @@ import com.badlogic.gdx.InputProcessor;
  */
 public class SimpleTimeline extends Test {
 	private final TweenManager tweenManager = new TweenManager();
+	private final FixedStepClock clock = new FixedStepClock(tweenManager);
 
 	@Override
 	public String getTitle() {
@@ -64,10 +67,11 @@ public class SimpleTimeline extends Test {
 	@Override
 	protected void disposeOverride() {
 		tweenManager.killAll();
+		clock.reset();
 	}
 
 	@Override
 	protected void renderOverride() {
-		tweenManager.update(Gdx.graphics.getDeltaTime());
+		PerfHud.inst().update(clock, Gdx.graphics.getDeltaTime(), getTitle());
 	}
 }
@@ -1,20 +1,26 @@
 package aurelienribon.tweenengine.demo.tests;
 
 import aurelienribon.accessors.SpriteAccessor;
+import aurelienribon.managers.FixedStepClock;
+import aurelienribon.managers.IndexedTweenManager;
+import aurelienribon.tweenengine.BaseTween;
 import aurelienribon.tweenengine.Tween;
-import aurelienribon.tweenengine.TweenManager;
+import aurelienribon.tweenengine.demo.PerfHud;
 import aurelienribon.tweenengine.demo.Test;
 import aurelienribon.tweenengine.equations.Cubic;
+import aurelienribon.tweens.TweenRetargeter;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.InputAdapter;
 import com.badlogic.gdx.InputProcessor;
 import com.badlogic.gdx.math.Vector2;
+import java.util.List;
 
 /**
  * @author Aurelien Ribon | http://www.aurelienribon.com
  */
 public class SimpleTween extends Test {
-	private final TweenManager tweenManager = new TweenManager();
+	private final IndexedTweenManager tweenManager = new IndexedTweenManager();
+	private final FixedStepClock clock = new FixedStepClock(tweenManager);
 
 	@Override
 	public String getTitle() {
@@ -42,16 +48,18 @@ public class SimpleTween extends Test {
 		createSprites(1);
 		enableDots(0);
 		center(sprites[0], 0, 0);
+		tweenManager.setOverwrite(true);	// 新的CPOS_XY tween开始时, 停止旧的
 	}
 
 	@Override
 	protected void disposeOverride() {
 		tweenManager.killAll();
+		clock.reset();
 	}
 
 	@Override
 	protected void renderOverride() {
-		tweenManager.update(Gdx.graphics.getDeltaTime());
+		PerfHud.inst().update(clock, Gdx.graphics.getDeltaTime(), getTitle());
 	}
 
 	private final InputProcessor inputProcessor = new InputAdapter() {
@@ -59,7 +67,12 @@ public class SimpleTween extends Test {
 		public boolean touchDown(int x, int y, int pointer, int button) {
 			Vector2 v = touch2world(x, y);
 
-			tweenManager.killAll();
+			// 正在运行的tween直接换目标, 保持当前速度, 不再新建tween
+			List<BaseTween<?>> running = tweenManager.getObjects(sprites[0], SpriteAccessor.CPOS_XY);
+			for (int i=0; i<running.size(); i++) {
+				BaseTween<?> obj = running.get(i);
+				if (obj instanceof Tween && TweenRetargeter.retarget((Tween) obj, v.x, v.y)) return true;
+			}
 
 			Tween.to(sprites[0], SpriteAccessor.CPOS_XY, 0.6f)
 				.target(v.x, v.y)
@@ -1,12 +1,16 @@
 package aurelienribon.tweenengine.demo.tests;
 
 import aurelienribon.accessors.SpriteAccessor;
+import aurelienribon.managers.FixedStepClock;
 import aurelienribon.tweenengine.BaseTween;
 import aurelienribon.tweenengine.Timeline;
 import aurelienribon.tweenengine.Tween;
 import aurelienribon.tweenengine.TweenCallback;
 import aurelienribon.tweenengine.TweenManager;
+import aurelienribon.tweenengine.demo.PerfHud;
 import aurelienribon.tweenengine.demo.Test;
+import aurelienribon.tweenengine.demo.TextFormat;
+import aurelienribon.tweenengine.demo.TextLayouts;
 import aurelienribon.tweenengine.equations.Back;
 import aurelienribon.tweenengine.equations.Cubic;
 import aurelienribon.tweenengine.equations.Quad;
@@ -15,19 +19,22 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.InputAdapter;
 import com.badlogic.gdx.InputProcessor;
 import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.BitmapFontCache;
 import com.badlogic.gdx.graphics.g2d.Sprite;
-import java.util.Locale;
 
 /**
  * @author Aurelien Ribon | http://www.aurelienribon.com
  */
 public class TimeManipulation extends Test {
 	private final TweenManager tweenManager = new TweenManager();
+	private final FixedStepClock clock = new FixedStepClock(tweenManager);
 	private boolean canBeRestarted = false;
 	private boolean canControlSpeed = false;
 	private String text = "";
 	private int iterationCnt;
 	private float speed;
+	private float shownSpeed = Float.NaN;
+	private final StringBuilder speedText = new StringBuilder(32);
 
 	@Override
 	public String getTitle() {
@@ -63,22 +70,32 @@ public class TimeManipulation extends Test {
 	@Override
 	protected void disposeOverride() {
 		tweenManager.killAll();
+		clock.reset();
 		canBeRestarted = canControlSpeed = false;
 	}
 
 	@Override
 	protected void renderOverride() {
-		tweenManager.update(Gdx.graphics.getDeltaTime() * speed);
+		clock.setTimeScale(speed);	// 速度作为clock的时间缩放, 负数时倒放
+		PerfHud.inst().update(clock, Gdx.graphics.getDeltaTime(), getTitle());
 
-		int w = Gdx.graphics.getWidth();
 		int h = Gdx.graphics.getHeight();
 
-		batch.getProjectionMatrix().setToOrtho2D(0, 0, w, h);
-		batch.begin();
+		// 速度文字写进同一个StringBuilder,每帧不再分配新的String
+		if (speed != shownSpeed) {
+			shownSpeed = speed;
+			speedText.setLength(0);
+			TextFormat.appendFixed(speedText.append("Current speed: "), speed, 2);
+		}
+
+		BitmapFontCache textLayout = TextLayouts.inst().get(font, text);
+		textLayout.setPosition(15, h - 45);
+		textLayout.setColor(Color.WHITE);
+
+		queue.setProjection(screenProjection);
 		font.setColor(Color.WHITE);
-		font.draw(batch, String.format(Locale.US, "Current speed: %.2f", speed), 15, h - 15);
-		font.draw(batch, text, 15, h - 45);
-		batch.end();
+		queue.addText(font, speedText, 15, h - 15);
+		queue.add(textLayout);
 	}
 
 	// -------------------------------------------------------------------------
@@ -1,9 +1,10 @@
 package aurelienribon.tweenengine.demo.tests;
 
 import aurelienribon.accessors.SpriteAccessor;
-import aurelienribon.tweenengine.Tween;
-import aurelienribon.tweenengine.TweenManager;
+import aurelienribon.managers.BulkSpriteTweenManager;
+import aurelienribon.managers.FixedStepClock;
 import aurelienribon.tweenengine.TweenPaths;
+import aurelienribon.tweenengine.demo.PerfHud;
 import aurelienribon.tweenengine.demo.Test;
 import aurelienribon.tweenengine.equations.Back;
 import aurelienribon.tweenengine.equations.Cubic;
@@ -14,7 +15,8 @@ import com.badlogic.gdx.InputProcessor;
  * @author Aurelien Ribon | http://www.aurelienribon.com
  */
 public class Types extends Test {
-	private final TweenManager tweenManager = new TweenManager();
+	private final BulkSpriteTweenManager tweenManager = new BulkSpriteTweenManager();
+	private final FixedStepClock clock = new FixedStepClock(tweenManager);
 
 	@Override
 	public String getTitle() {
@@ -47,30 +49,30 @@ public class Types extends Test {
 		center(sprites[3], +0, -1f);
 		center(sprites[4], +3, -1f);
 
-		Tween.to(sprites[0], SpriteAccessor.SCALE_XY, 0.5f)
+		tweenManager.to(sprites[0], SpriteAccessor.SCALE_XY, 0.5f)
 			.ease(Back.INOUT)
 			.target(2, 2)
 			.repeatYoyo(-1, 0.6f)
-			.start(tweenManager);
+			.start();
 
-		Tween.to(sprites[1], SpriteAccessor.OPACITY, 0.7f)
+		tweenManager.to(sprites[1], SpriteAccessor.OPACITY, 0.7f)
 			.target(0)
 			.repeatYoyo(-1, 0.5f)
-			.start(tweenManager);
+			.start();
 
-		Tween.to(sprites[2], SpriteAccessor.CPOS_XY, 1.0f)
+		tweenManager.to(sprites[2], SpriteAccessor.CPOS_XY, 1.0f)
 			.ease(Back.INOUT)
 			.target(3, 1.5f)
 			.repeatYoyo(-1, 0.5f)
-			.start(tweenManager);
+			.start();
 
-		Tween.to(sprites[3], SpriteAccessor.ROTATION, 1.0f)
+		tweenManager.to(sprites[3], SpriteAccessor.ROTATION, 1.0f)
 			.target(580)
 			.ease(Cubic.INOUT)
 			.repeatYoyo(-1, 0.7f)
-			.start(tweenManager);
+			.start();
 
-		Tween.to(sprites[4], SpriteAccessor.TINT, 5.5f)
+		tweenManager.to(sprites[4], SpriteAccessor.TINT, 5.5f)
 			.waypoint(1, 0, 0)	// rgb达到的目标点
 			.waypoint(1, 1, 1)
 			.waypoint(0, 1, 0)
@@ -79,16 +81,17 @@ public class Types extends Test {
 			.target(1, 1, 1)
 			.path(TweenPaths.linear)	// 线性变化
 			.repeat(-1, 0.0f)
-			.start(tweenManager);
+			.start();
 	}
 
 	@Override
 	protected void disposeOverride() {
 		tweenManager.killAll();
+		clock.reset();
 	}
 
 	@Override
 	protected void renderOverride() {
-		tweenManager.update(Gdx.graphics.getDeltaTime());
+		PerfHud.inst().update(clock, Gdx.graphics.getDeltaTime(), getTitle());
 	}
 }
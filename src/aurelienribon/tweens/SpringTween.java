@@ -0,0 +1,392 @@
+package aurelienribon.tweens;
+
+import aurelienribon.tweenengine.BaseTween;
+import aurelienribon.tweenengine.Tween;
+import aurelienribon.tweenengine.TweenAccessor;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+
+/**
+ * Drives the values of a target with a damped spring, through its
+ * registered TweenAccessor, instead of a curve of fixed duration.
+ * <p>
+ *
+ * Every attribute is pulled towards its target value by a force
+ * proportional to its distance ({@link #stiffness(float) stiffness}), and
+ * slowed down by a force proportional to its velocity ({@link
+ * #damping(float) damping}), for a unit mass. Low damping makes the spring
+ * overshoot and oscillate; a damping of 2*sqrt(stiffness) reaches the
+ * target the fastest without overshooting.
+ * <pre>
+ * SpringTween.to(sprite, SpriteAccessor.CPOS_XY)
+ *     .stiffness(170).damping(26)
+ *     .target(x, y)
+ *     .start(manager);
+ * </pre>
+ *
+ * The motion is not integrated numerically: each update applies the closed
+ * form solution of the spring (underdamped, critically damped or
+ * overdamped) over the update delta, so it is exact whatever the deltas,
+ * and costs the same for any delta. The coefficients depend only on the
+ * delta, and are cached: with the fixed steps of a {@link
+ * aurelienribon.managers.FixedStepClock}, an update costs four
+ * multiplications per attribute.
+ * <p>
+ *
+ * Calling target() on a running spring moves its target values, keeping
+ * the current velocities. Once every value is within {@link
+ * #epsilon(float) epsilon} of its target, with a velocity below epsilon per
+ * second, the values are snapped on the target and the spring sleeps: its
+ * updates don't call the accessor anymore, until it is given a new target.
+ * A sleeping spring stays in its manager until killed, unless {@link
+ * #autoFinish(boolean) autoFinish} is enabled, in which case it completes
+ * and is removed like a tween.
+ * <p>
+ *
+ * Springs are pooled like tweens, and are freed to their pool by their
+ * manager. They can't be repeated nor pushed in timelines.
+ */
+public class SpringTween extends BaseTween<SpringTween> {
+	public static final float DEFAULT_STIFFNESS = 170;
+	public static final float DEFAULT_DAMPING = 26;
+	public static final float DEFAULT_EPSILON = 0.001f;
+
+	private static final Field combinedAttrsLimitField;
+	private static final ArrayList<SpringTween> pool = new ArrayList<SpringTween>();
+
+	static {
+		try {
+			combinedAttrsLimitField = Tween.class.getDeclaredField("combinedAttrsLimit");
+			combinedAttrsLimitField.setAccessible(true);
+		} catch (NoSuchFieldException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	// -------------------------------------------------------------------------
+	// Static -- pool
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Creates a new spring, from the pool, driving the given target with its
+	 * registered accessor. Its target values need to be set with target().
+	 */
+	public static SpringTween to(Object target, int tweenType) {
+		SpringTween spring = pool.isEmpty() ? new SpringTween() : pool.remove(pool.size()-1);
+		spring.isPooled = false;
+		spring.reset();
+		spring.setup(target, tweenType);
+		return spring;
+	}
+
+	public static int getPoolSize() {
+		return pool.size();
+	}
+
+	public static void ensurePoolCapacity(int minCapacity) {
+		pool.ensureCapacity(minCapacity);
+		while (pool.size() < minCapacity) {
+			SpringTween spring = new SpringTween();
+			spring.isPooled = true;
+			pool.add(spring);
+		}
+	}
+
+	// -------------------------------------------------------------------------
+	// Attributes
+	// -------------------------------------------------------------------------
+
+	private Object target;
+	private TweenAccessor<Object> accessor;
+	private int type;
+	private float stiffness;
+	private float damping;
+	private float epsilon;
+	private boolean isAutoFinishEnabled;
+
+	private float[] values = new float[0];
+	private float[] velocities = new float[0];
+	private float[] startValues = new float[0];
+	private float[] targetValues = new float[0];
+	private int attrsCnt;
+	private int targetsCnt;
+	private boolean isSleeping;
+	private boolean isPooled;
+
+	// Transition over the last delta, of (offset, velocity)
+	private float cachedDelta = Float.NaN;
+	private float m00, m01, m10, m11;
+
+	private SpringTween() {
+	}
+
+	@Override
+	protected void reset() {
+		super.reset();
+		target = null;
+		accessor = null;
+		type = -1;
+		stiffness = DEFAULT_STIFFNESS;
+		damping = DEFAULT_DAMPING;
+		epsilon = DEFAULT_EPSILON;
+		isAutoFinishEnabled = false;
+		attrsCnt = targetsCnt = 0;
+		isSleeping = false;
+		cachedDelta = Float.NaN;
+	}
+
+	@SuppressWarnings("unchecked")
+	private void setup(Object target, int tweenType) {
+		if (target == null) throw new RuntimeException("The target can't be null");
+		this.accessor = (TweenAccessor<Object>) findAccessor(target.getClass());
+		if (accessor == null) throw new RuntimeException("No TweenAccessor was found for the target");
+		this.target = target;
+		this.type = tweenType;
+		this.duration = Float.MAX_VALUE;
+
+		int limit;
+		try {
+			limit = combinedAttrsLimitField.getInt(null);
+		} catch (IllegalAccessException ex) {
+			throw new RuntimeException(ex);
+		}
+		if (values.length < limit) {
+			values = new float[limit];
+			velocities = new float[limit];
+			startValues = new float[limit];
+			targetValues = new float[limit];
+		}
+	}
+
+	// -------------------------------------------------------------------------
+	// Public API
+	// -------------------------------------------------------------------------
+
+	/**
+	 * Sets the stiffness of the spring. Default is {@link #DEFAULT_STIFFNESS}.
+	 */
+	public SpringTween stiffness(float stiffness) {
+		if (stiffness <= 0) throw new RuntimeException("Stiffness must be > 0");
+		this.stiffness = stiffness;
+		cachedDelta = Float.NaN;
+		return this;
+	}
+
+	/**
+	 * Sets the damping of the spring. Default is {@link #DEFAULT_DAMPING}.
+	 */
+	public SpringTween damping(float damping) {
+		if (damping < 0) throw new RuntimeException("Damping can't be negative");
+		this.damping = damping;
+		cachedDelta = Float.NaN;
+		return this;
+	}
+
+	/**
+	 * Sets the distance to the target, and the speed, under which the spring
+	 * goes to sleep. Default is {@link #DEFAULT_EPSILON}.
+	 */
+	public SpringTween epsilon(float epsilon) {
+		if (!(epsilon > 0)) throw new RuntimeException("Epsilon must be > 0");
+		this.epsilon = epsilon;
+		return this;
+	}
+
+	/**
+	 * Makes the spring complete once it sleeps, instead of staying in its
+	 * manager. Default is disabled.
+	 */
+	public SpringTween autoFinish(boolean isAutoFinishEnabled) {
+		this.isAutoFinishEnabled = isAutoFinishEnabled;
+		return this;
+	}
+
+	public SpringTween target(float targetValue) {
+		targetValues[0] = targetValue;
+		return retarget(1);
+	}
+
+	public SpringTween target(float targetValue1, float targetValue2) {
+		targetValues[0] = targetValue1;
+		targetValues[1] = targetValue2;
+		return retarget(2);
+	}
+
+	public SpringTween target(float targetValue1, float targetValue2, float targetValue3) {
+		targetValues[0] = targetValue1;
+		targetValues[1] = targetValue2;
+		targetValues[2] = targetValue3;
+		return retarget(3);
+	}
+
+	public SpringTween target(float... targetValues) {
+		if (targetValues.length > this.targetValues.length) throw new RuntimeException("You cannot set more than " + this.targetValues.length + " targets");
+		System.arraycopy(targetValues, 0, this.targetValues, 0, targetValues.length);
+		return retarget(targetValues.length);
+	}
+
+	public Object getTarget() {
+		return target;
+	}
+
+	public int getType() {
+		return type;
+	}
+
+	public float getStiffness() {
+		return stiffness;
+	}
+
+	public float getDamping() {
+		return damping;
+	}
+
+	/**
+	 * Gets the velocity of an attribute, in units per second.
+	 */
+	public float getVelocity(int attr) {
+		return velocities[attr];
+	}
+
+	/**
+	 * Tells if the spring settled on its target values.
+	 */
+	public boolean isSleeping() {
+		return isSleeping;
+	}
+
+	// -------------------------------------------------------------------------
+	// BaseTween overrides
+	// -------------------------------------------------------------------------
+
+	@Override
+	public void free() {
+		if (isPooled) throw new RuntimeException("The spring was already freed");
+		isPooled = true;
+		pool.add(this);
+	}
+
+	@Override
+	protected void initializeOverride() {
+		attrsCnt = accessor.getValues(target, type, values);
+		if (targetsCnt != attrsCnt) throw new RuntimeException("The accessor has " + attrsCnt + " values, but " + targetsCnt + " targets were given");
+		System.arraycopy(values, 0, startValues, 0, attrsCnt);
+		for (int i=0; i<attrsCnt; i++) velocities[i] = 0;
+	}
+
+	@Override
+	protected void updateOverride(int step, int lastStep, boolean isIterationStep, float delta) {
+		if (!isIterationStep) {
+			forceEndValues();
+			return;
+		}
+
+		if (isSleeping) return;
+		if (delta != cachedDelta) computeTransition(delta);
+
+		boolean isSettled = true;
+		for (int i=0; i<attrsCnt; i++) {
+			float offset = values[i] - targetValues[i];
+			float velocity = velocities[i];
+			float newOffset = m00 * offset + m01 * velocity;
+			float newVelocity = m10 * offset + m11 * velocity;
+			values[i] = targetValues[i] + newOffset;
+			velocities[i] = newVelocity;
+			isSettled &= Math.abs(newOffset) < epsilon && Math.abs(newVelocity) < epsilon;
+		}
+
+		if (isSettled) sleep();
+		accessor.setValues(target, type, values);
+	}
+
+	@Override
+	protected void forceStartValues() {
+		if (attrsCnt > 0) accessor.setValues(target, type, startValues);
+	}
+
+	@Override
+	protected void forceEndValues() {
+		if (attrsCnt > 0) accessor.setValues(target, type, targetValues);
+	}
+
+	@Override
+	protected boolean containsTarget(Object target) {
+		return this.target == target;
+	}
+
+	@Override
+	protected boolean containsTarget(Object target, int tweenType) {
+		return this.target == target && this.type == tweenType;
+	}
+
+	// -------------------------------------------------------------------------
+	// Helpers
+	// -------------------------------------------------------------------------
+
+	private SpringTween retarget(int targetsCnt) {
+		if (isInitialized() && targetsCnt != attrsCnt) throw new RuntimeException("The spring has " + attrsCnt + " values, not " + targetsCnt);
+		this.targetsCnt = targetsCnt;
+		isSleeping = false;
+		duration = Float.MAX_VALUE; // cancels the auto finish of a sleeping spring
+		return this;
+	}
+
+	private void sleep() {
+		for (int i=0; i<attrsCnt; i++) {
+			values[i] = targetValues[i];
+			velocities[i] = 0;
+		}
+		isSleeping = true;
+
+		// Completes on the next update
+		if (isAutoFinishEnabled) duration = getCurrentTime();
+	}
+
+	/**
+	 * Computes the transition of (offset, velocity) over the given delta, from
+	 * the solutions starting from (1, 0) and from (0, 1).
+	 */
+	private void computeTransition(float delta) {
+		cachedDelta = delta;
+		double t = delta;
+		double w0 = Math.sqrt(stiffness);
+		double zeta = damping / (2 * w0);
+
+		if (Math.abs(zeta - 1) < 1e-4) {
+			double e = Math.exp(-w0 * t);
+			m00 = (float) ((1 + w0 * t) * e);
+			m01 = (float) (t * e);
+			m10 = (float) (-w0 * w0 * t * e);
+			m11 = (float) ((1 - w0 * t) * e);
+
+		} else if (zeta < 1) {
+			double wd = w0 * Math.sqrt(1 - zeta * zeta);
+			double e = Math.exp(-zeta * w0 * t);
+			double cos = Math.cos(wd * t);
+			double sin = Math.sin(wd * t);
+			m00 = (float) (e * (cos + zeta * w0 / wd * sin));
+			m01 = (float) (e * sin / wd);
+			m10 = (float) (-e * w0 * w0 / wd * sin);
+			m11 = (float) (e * (cos - zeta * w0 / wd * sin));
+
+		} else {
+			double s = w0 * Math.sqrt(zeta * zeta - 1);
+			double r1 = -zeta * w0 + s;
+			double r2 = -zeta * w0 - s;
+			double e1 = Math.exp(r1 * t);
+			double e2 = Math.exp(r2 * t);
+			m00 = (float) ((r1 * e2 - r2 * e1) / (r1 - r2));
+			m01 = (float) ((e1 - e2) / (r1 - r2));
+			m10 = (float) (r1 * r2 * (e2 - e1) / (r1 - r2));
+			m11 = (float) ((r1 * e1 - r2 * e2) / (r1 - r2));
+		}
+	}
+
+	private static TweenAccessor<?> findAccessor(Class<?> type) {
+		for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+			TweenAccessor<?> accessor = Tween.getRegisteredAccessor(c);
+			if (accessor != null) return accessor;
+		}
+		return null;
+	}
+}
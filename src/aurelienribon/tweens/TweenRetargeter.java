@@ -0,0 +1,269 @@
+package aurelienribon.tweens;
+
+import aurelienribon.tweenengine.BaseTween;
+import aurelienribon.tweenengine.Tween;
+import aurelienribon.tweenengine.TweenEquation;
+import aurelienribon.tweenengine.TweenPath;
+import aurelienribon.tweenengine.equations.Linear;
+import java.lang.reflect.Field;
+
+/**
+ * Changes the target values, and optionally the duration, of a running
+ * Tween in place.
+ * <p>
+ *
+ * Killing a tween and starting a new one from the current position makes
+ * the motion stop dead and start again in the new direction. Retargeting
+ * keeps the tween, and so its pool slot, manager and callback: the tween
+ * starts over from its current value, at its current velocity, and eases
+ * out to the new target values. Nothing is allocated, so a drag-follow can
+ * retarget on every frame:
+ * <pre>
+ * if (!TweenRetargeter.retarget(tween, x, y)) {
+ *     tween = Tween.to(sprite, SpriteAccessor.CPOS_XY, 0.6f).target(x, y).start(manager);
+ * }
+ * </pre>
+ *
+ * The new curve of every attribute is a cubic Bezier from the current value
+ * to the target value, whose first control point gives the current velocity
+ * and second one is the target, played with a linear easing: it starts at
+ * the current velocity and comes to rest on the target. From rest, it is a
+ * smooth in-out. The velocity goes through the tween single waypoint, so it
+ * needs Tween.setWaypointsLimit(1) or more; without it, the new curve starts
+ * at rest.
+ * <p>
+ *
+ * Only standalone tweens past their delay can be retargeted: not the ones
+ * still waiting, finished, killed, between two repetitions, or playing a
+ * yoyo backwards. Tweens of a timeline must not be retargeted, as their
+ * timeline doesn't know about their new duration. The remaining
+ * repetitions of a tween play the new curve.
+ */
+public class TweenRetargeter {
+	/**
+	 * Cubic Bezier from the first point to the last one, with the middle
+	 * point as first control point and the last one as second control point.
+	 * Other point counts are interpolated linearly from the first to the
+	 * last point.
+	 */
+	public static final TweenPath PATH = new TweenPath() {
+		@Override
+		public float compute(float t, float[] points, int pointsCnt) {
+			float p0 = points[0];
+			float p3 = points[pointsCnt-1];
+			if (pointsCnt != 3) return p0 + t * (p3 - p0);
+
+			float u = 1 - t;
+			return u*u*u * p0 + 3*u*u*t * points[1] + (3*u*t*t + t*t*t) * p3;
+		}
+	};
+
+	private static final Field currentTimeField;
+	private static final Field durationField;
+	private static final Field stepField;
+	private static final Field isIterationStepField;
+	private static final Field startValuesField;
+	private static final Field waypointsField;
+	private static final Field waypointsCntField;
+	private static final Field pathField;
+	private static final Field pathBufferField;
+
+	static {
+		try {
+			currentTimeField = BaseTween.class.getDeclaredField("currentTime");
+			currentTimeField.setAccessible(true);
+			durationField = BaseTween.class.getDeclaredField("duration");
+			durationField.setAccessible(true);
+			stepField = BaseTween.class.getDeclaredField("step");
+			stepField.setAccessible(true);
+			isIterationStepField = BaseTween.class.getDeclaredField("isIterationStep");
+			isIterationStepField.setAccessible(true);
+			startValuesField = Tween.class.getDeclaredField("startValues");
+			startValuesField.setAccessible(true);
+			waypointsField = Tween.class.getDeclaredField("waypoints");
+			waypointsField.setAccessible(true);
+			waypointsCntField = Tween.class.getDeclaredField("waypointsCnt");
+			waypointsCntField.setAccessible(true);
+			pathField = Tween.class.getDeclaredField("path");
+			pathField.setAccessible(true);
+			pathBufferField = Tween.class.getDeclaredField("pathBuffer");
+			pathBufferField.setAccessible(true);
+		} catch (NoSuchFieldException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	/**
+	 * Retargets a tween of one attribute, keeping its duration.
+	 * @return False if the tween can't be retargeted.
+	 */
+	public static boolean retarget(Tween tween, float targetValue) {
+		if (!isRetargetable(tween, 1)) return false;
+		retarget(tween, tween.getDuration(), 0, targetValue);
+		finish(tween, tween.getDuration());
+		return true;
+	}
+
+	/**
+	 * Retargets a tween of two attributes, keeping its duration.
+	 * @return False if the tween can't be retargeted.
+	 */
+	public static boolean retarget(Tween tween, float targetValue1, float targetValue2) {
+		if (!isRetargetable(tween, 2)) return false;
+		retarget(tween, tween.getDuration(), 0, targetValue1);
+		retarget(tween, tween.getDuration(), 1, targetValue2);
+		finish(tween, tween.getDuration());
+		return true;
+	}
+
+	/**
+	 * Retargets a tween of three attributes, keeping its duration.
+	 * @return False if the tween can't be retargeted.
+	 */
+	public static boolean retarget(Tween tween, float targetValue1, float targetValue2, float targetValue3) {
+		if (!isRetargetable(tween, 3)) return false;
+		retarget(tween, tween.getDuration(), 0, targetValue1);
+		retarget(tween, tween.getDuration(), 1, targetValue2);
+		retarget(tween, tween.getDuration(), 2, targetValue3);
+		finish(tween, tween.getDuration());
+		return true;
+	}
+
+	/**
+	 * Retargets a tween, keeping its duration.
+	 * @return False if the tween can't be retargeted.
+	 */
+	public static boolean retarget(Tween tween, float[] targetValues) {
+		return retarget(tween, targetValues, tween.getDuration());
+	}
+
+	/**
+	 * Retargets a tween, which takes the given duration to reach the new
+	 * target values from now on.
+	 * @return False if the tween can't be retargeted.
+	 */
+	public static boolean retarget(Tween tween, float[] targetValues, float duration) {
+		if (duration < 0) throw new RuntimeException("Duration can't be negative");
+		if (!isRetargetable(tween, targetValues.length)) return false;
+		for (int i=0; i<targetValues.length; i++) retarget(tween, duration, i, targetValues[i]);
+		finish(tween, duration);
+		return true;
+	}
+
+	/**
+	 * Tells if the given tween is running, and can be retargeted.
+	 */
+	public static boolean isRetargetable(Tween tween) {
+		if (!tween.isInitialized() || tween.isFinished() || tween.getTarget() == null) return false;
+		try {
+			int step = stepField.getInt(tween);
+			boolean isReverse = tween.isYoyo() && Math.abs(step%4) == 2;
+			return isIterationStepField.getBoolean(tween) && !isReverse;
+		} catch (IllegalAccessException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	// -------------------------------------------------------------------------
+	// Helpers
+	// -------------------------------------------------------------------------
+
+	private static boolean isRetargetable(Tween tween, int valuesCnt) {
+		if (!isRetargetable(tween)) return false;
+		if (valuesCnt != tween.getCombinedAttributesCount()) {
+			throw new RuntimeException("The tween has " + tween.getCombinedAttributesCount() + " attributes, not " + valuesCnt);
+		}
+		return true;
+	}
+
+	/**
+	 * Replaces the curve of one attribute, from its value and velocity at the
+	 * current time. Attributes are independent, so they can be replaced one
+	 * after the other.
+	 */
+	private static void retarget(Tween tween, float duration, int attr, float targetValue) {
+		try {
+			float[] startValues = (float[]) startValuesField.get(tween);
+			float[] targetValues = tween.getTargetValues();
+			float[] waypoints = (float[]) waypointsField.get(tween);
+			int attrsCnt = tween.getCombinedAttributesCount();
+
+			float oldDuration = durationField.getFloat(tween);
+			float time = currentTimeField.getFloat(tween);
+			float value, velocity;
+
+			if (oldDuration < 1e-11f) {
+				value = targetValues[attr];
+				velocity = 0;
+			} else {
+				float h = oldDuration * 1e-3f;
+				float t0 = Math.max(time - h, 0);
+				float t1 = Math.min(time + h, oldDuration);
+				value = compute(tween, attr, time);
+				velocity = (compute(tween, attr, t1) - compute(tween, attr, t0)) / (t1 - t0);
+			}
+
+			startValues[attr] = value;
+			targetValues[attr] = targetValue;
+			if (waypoints.length >= attrsCnt) waypoints[attr] = value + velocity * duration / 3;
+		} catch (IllegalAccessException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	/**
+	 * Switches the tween to the new curves, once every attribute is done.
+	 */
+	private static void finish(Tween tween, float duration) {
+		try {
+			float[] waypoints = (float[]) waypointsField.get(tween);
+			float[] pathBuffer = (float[]) pathBufferField.get(tween);
+			boolean hasVelocity = waypoints.length >= tween.getCombinedAttributesCount() && pathBuffer.length >= 3;
+
+			tween.ease(hasVelocity ? Linear.INOUT : SMOOTH);
+			pathField.set(tween, hasVelocity ? PATH : null);
+			waypointsCntField.setInt(tween, hasVelocity ? 1 : 0);
+			durationField.setFloat(tween, duration);
+			currentTimeField.setFloat(tween, 0);
+		} catch (IllegalAccessException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+
+	/**
+	 * Computes the value of an attribute at the given time of the current
+	 * iteration, as the tween does.
+	 */
+	private static float compute(Tween tween, int attr, float time) throws IllegalAccessException {
+		float[] startValues = (float[]) startValuesField.get(tween);
+		float[] targetValues = tween.getTargetValues();
+		float t = tween.getEasing().compute(time / durationField.getFloat(tween));
+
+		int waypointsCnt = waypointsCntField.getInt(tween);
+		TweenPath path = (TweenPath) pathField.get(tween);
+		if (waypointsCnt == 0 || path == null) return startValues[attr] + t * (targetValues[attr] - startValues[attr]);
+
+		float[] waypoints = (float[]) waypointsField.get(tween);
+		float[] pathBuffer = (float[]) pathBufferField.get(tween);
+		int attrsCnt = tween.getCombinedAttributesCount();
+		pathBuffer[0] = startValues[attr];
+		for (int i=0; i<waypointsCnt; i++) pathBuffer[i+1] = waypoints[i*attrsCnt + attr];
+		pathBuffer[waypointsCnt+1] = targetValues[attr];
+		return path.compute(t, pathBuffer, waypointsCnt+2);
+	}
+
+	/**
+	 * The curve of {@link #PATH} from rest, for tweens without waypoint.
+	 */
+	private static final TweenEquation SMOOTH = new TweenEquation() {
+		@Override
+		public float compute(float t) {
+			return t*t * (3 - 2*t);
+		}
+
+		@Override
+		public String toString() {
+			return "TweenRetargeter.SMOOTH";
+		}
+	};
+}